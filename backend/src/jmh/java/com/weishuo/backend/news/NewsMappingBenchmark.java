@@ -0,0 +1,147 @@
+package com.weishuo.backend.news;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weishuo.backend.config.NewsEngagementProperties;
+import com.weishuo.backend.news.dto.MediastackResponse;
+import com.weishuo.backend.news.dto.NewsFeedItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 新闻映射与序列化热点路径的基准测试
+ * 每次调用处理一整页新闻，页大小取自 Mediastack 的常用 limit（默认 10、常用 25、上限 100）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NewsMappingBenchmark {
+
+    @Param({"10", "25", "100"})
+    private int pageSize;
+
+    private final NewsFeedMapper mapper = new NewsFeedMapper(
+            new EngagementCounters(new NewsEngagementProperties(), null, new SimpleMeterRegistry()));
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<MediastackResponse.Article> articles;
+    private List<NewsBackupSummary> summaries;
+    private List<NewsFeedItem> feedItems;
+
+    @Setup
+    public void loadFixture() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/fixtures/mediastack-" + pageSize + ".json")) {
+            articles = objectMapper.readValue(in, MediastackResponse.class).getData();
+        }
+        feedItems = articles.stream()
+                .map(article -> mapper.mapToFeedItem(article, "general"))
+                .collect(Collectors.toList());
+        summaries = feedItems.stream()
+                .map(item -> mapper.toBackup(item, "general"))
+                .map(FixtureSummary::new)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public void mapToFeedItem(Blackhole bh) {
+        for (MediastackResponse.Article article : articles) {
+            bh.consume(mapper.mapToFeedItem(article, "general"));
+        }
+    }
+
+    @Benchmark
+    public void convertToFeedItem(Blackhole bh) {
+        for (NewsBackupSummary summary : summaries) {
+            bh.consume(mapper.convertToFeedItem(summary));
+        }
+    }
+
+    @Benchmark
+    public void formatPublishedAt(Blackhole bh) {
+        for (MediastackResponse.Article article : articles) {
+            bh.consume(mapper.formatPublishedAt(article.getPublished_at()));
+        }
+    }
+
+    @Benchmark
+    public void parsePublishedAt(Blackhole bh) {
+        for (NewsFeedItem item : feedItems) {
+            bh.consume(mapper.parsePublishedAt(item.getCreatedAt()));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeFeed() throws IOException {
+        return objectMapper.writeValueAsBytes(feedItems);
+    }
+
+    private static final class FixtureSummary implements NewsBackupSummary {
+
+        private final NewsBackup backup;
+        private final String urlHash;
+
+        private FixtureSummary(NewsBackup backup) {
+            this.backup = backup;
+            this.urlHash = backup.getUrl() != null ? NewsBackup.hashUrl(backup.getUrl()) : null;
+        }
+
+        @Override
+        public Long getId() {
+            return 1L;
+        }
+
+        @Override
+        public String getTitle() {
+            return backup.getTitle();
+        }
+
+        @Override
+        public String getSummary() {
+            return backup.getSummary();
+        }
+
+        @Override
+        public String getSource() {
+            return backup.getSource();
+        }
+
+        @Override
+        public String getContent() {
+            return backup.getContent();
+        }
+
+        @Override
+        public String getUrl() {
+            return backup.getUrl();
+        }
+
+        @Override
+        public String getUrlHash() {
+            return urlHash;
+        }
+
+        @Override
+        public LocalDateTime getPublishedAt() {
+            return backup.getPublishedAt();
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.weishuo.backend.loadtest;
+
+import com.weishuo.backend.WeishuoBackendApplication;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 负载测试入口：启动内嵌 Mediastack 替身，以默认的 H2 内存库启动应用，再以固定到达速率同时压测
+ * /api/news/latest 与 /api/auth/login，结果写成 Markdown 报告
+ *
+ * <p>参数均为 key=value 形式，未指定的使用 {@link #DEFAULTS} 中的值，例如：
+ * <pre>./mvnw -Ploadtest test-compile exec:exec -Dloadtest.args="latestRate=500 duration=60s"</pre>
+ */
+public final class LoadTestMain {
+
+    private static final List<String> CHANNELS = List.of("hot", "tech", "video", "society", "headline");
+    private static final String PASSWORD = "loadtest123";
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("latestRate", "200");
+        DEFAULTS.put("loginRate", "20");
+        DEFAULTS.put("duration", "30s");
+        DEFAULTS.put("warmup", "10s");
+        DEFAULTS.put("drainTimeout", "10s");
+        DEFAULTS.put("users", "50");
+        DEFAULTS.put("bcryptStrength", "10");
+        DEFAULTS.put("cacheTtl", "5s");
+        DEFAULTS.put("refreshInterval", "10s");
+        DEFAULTS.put("stubLatency", "50ms");
+        DEFAULTS.put("stubErrorRate", "0.05");
+        DEFAULTS.put("stubPageSize", "25");
+        DEFAULTS.put("seed", "42");
+        DEFAULTS.put("report", "benchmarks/loadtest-report.md");
+    }
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0 || !DEFAULTS.containsKey(arg.substring(0, eq))) {
+                throw new IllegalArgumentException("未知参数: " + arg + "，可用参数: " + DEFAULTS.keySet());
+            }
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+
+        try (StubMediastackServer stub = new StubMediastackServer(
+                duration(options, "stubLatency").toMillis(),
+                Double.parseDouble(options.get("stubErrorRate")),
+                Integer.parseInt(options.get("stubPageSize")),
+                Long.parseLong(options.get("seed")))) {
+            ConfigurableApplicationContext context = startApplication(stub, options);
+            try {
+                int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+                run(URI.create("http://127.0.0.1:" + port), stub, options);
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    /**
+     * 以命令行参数的形式覆盖配置，优先级高于 application.yml；激活不存在的 h2 profile，
+     * 使 mysql profile 不生效，数据源回落到默认的 H2 内存库
+     */
+    private static ConfigurableApplicationContext startApplication(StubMediastackServer stub, Map<String, String> options) {
+        return new SpringApplicationBuilder(WeishuoBackendApplication.class)
+                .run(
+                        "--spring.profiles.active=h2",
+                        "--spring.main.banner-mode=off",
+                        "--server.port=0",
+                        "--news.api.base-url=" + stub.baseUrl(),
+                        "--news.api.api-key=loadtest",
+                        "--news.api.refresh-interval=" + options.get("refreshInterval"),
+                        "--news.api.refresh-jitter=0s",
+                        "--news.api.daily-quota=1000000",
+                        "--news.cache.ttl=" + options.get("cacheTtl"),
+                        "--news.search.directory=target/loadtest/search",
+                        "--news.retention.enabled=false",
+                        // 压测的是服务本身的容量，限流会把超出部分直接变成 429
+                        "--rate-limit.enabled=false",
+                        "--auth.password.strength=" + options.get("bcryptStrength"),
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.com.weishuo=WARN");
+    }
+
+    private static void run(URI base, StubMediastackServer stub, Map<String, String> options)
+            throws IOException, InterruptedException {
+        ExecutorService clientExecutor = daemonPool(4, "loadtest-client");
+        // 两个场景各占一个线程同时驱动，预热和正式压测复用
+        ExecutorService driverExecutor = daemonPool(2, "loadtest-driver");
+        try {
+            run(base, stub, options, clientExecutor, driverExecutor);
+        } finally {
+            driverExecutor.shutdownNow();
+            clientExecutor.shutdownNow();
+        }
+    }
+
+    private static void run(URI base, StubMediastackServer stub, Map<String, String> options,
+                            ExecutorService clientExecutor, ExecutorService driverExecutor)
+            throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(clientExecutor)
+                .build();
+
+        int users = Integer.parseInt(options.get("users"));
+        registerUsers(client, base, users);
+
+        OpenLoopDriver latest = new OpenLoopDriver("GET /api/news/latest",
+                Double.parseDouble(options.get("latestRate")), client,
+                i -> HttpRequest.newBuilder(base.resolve("/api/news/latest?channel=" + CHANNELS.get((int) (i % CHANNELS.size()))))
+                        .header("Accept-Encoding", "gzip")
+                        .timeout(Duration.ofSeconds(30))
+                        .GET()
+                        .build());
+        OpenLoopDriver login = new OpenLoopDriver("POST /api/auth/login",
+                Double.parseDouble(options.get("loginRate")), client,
+                i -> HttpRequest.newBuilder(base.resolve("/api/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .timeout(Duration.ofSeconds(30))
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"username\":\"loadtest-" + (i % users) + "\",\"password\":\"" + PASSWORD + "\"}"))
+                        .build());
+
+        Duration drainTimeout = duration(options, "drainTimeout");
+        System.out.println("预热 " + options.get("warmup") + " ...");
+        runTogether(driverExecutor, latest, login, duration(options, "warmup"), drainTimeout);
+        long stubRequestsBefore = stub.requests();
+        long stubErrorsBefore = stub.errors();
+
+        System.out.println("压测 " + options.get("duration") + " ...");
+        List<OpenLoopDriver.Result> results = runTogether(driverExecutor, latest, login, duration(options, "duration"),
+                drainTimeout);
+
+        String report = report(options, results, stub.requests() - stubRequestsBefore, stub.errors() - stubErrorsBefore);
+        Path path = Path.of(options.get("report"));
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Files.writeString(path, report, StandardCharsets.UTF_8);
+        System.out.println(report);
+        System.out.println("报告已写入 " + path.toAbsolutePath());
+    }
+
+    /**
+     * 注册压测账号；逐个同步注册，不会触发哈希线程池的排队上限
+     */
+    private static void registerUsers(HttpClient client, URI base, int users) throws IOException, InterruptedException {
+        for (int i = 0; i < users; i++) {
+            HttpRequest request = HttpRequest.newBuilder(base.resolve("/api/auth/register"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"loadtest-" + i + "\",\"password\":\""
+                            + PASSWORD + "\",\"displayName\":\"压测用户" + i + "\"}"))
+                    .build();
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status != 201) {
+                throw new IllegalStateException("注册压测账号失败，HTTP " + status);
+            }
+        }
+    }
+
+    private static List<OpenLoopDriver.Result> runTogether(ExecutorService executor, OpenLoopDriver first,
+                                                           OpenLoopDriver second, Duration duration,
+                                                           Duration drainTimeout) {
+        CompletableFuture<OpenLoopDriver.Result> a = CompletableFuture.supplyAsync(() -> first.run(duration, drainTimeout),
+                executor);
+        CompletableFuture<OpenLoopDriver.Result> b = CompletableFuture.supplyAsync(() -> second.run(duration, drainTimeout),
+                executor);
+        return List.of(a.join(), b.join());
+    }
+
+    private static ExecutorService daemonPool(int threads, String name) {
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static String report(Map<String, String> options, List<OpenLoopDriver.Result> results,
+                                 long stubRequests, long stubErrors) {
+        StringBuilder out = new StringBuilder();
+        out.append("# 负载测试报告\n\n");
+        out.append("由 `LoadTestMain` 生成，复现方式见 `benchmarks/README.md`。\n\n");
+        out.append("- 生成时间：").append(OffsetDateTime.now().truncatedTo(ChronoUnit.SECONDS)).append('\n');
+        out.append("- 运行环境：Java ").append(System.getProperty("java.version"))
+                .append("，").append(Runtime.getRuntime().availableProcessors()).append(" 核，最大堆 ")
+                .append(Runtime.getRuntime().maxMemory() / (1024 * 1024)).append(" MB\n");
+        out.append("- 客户端、应用与 Mediastack 替身运行在同一 JVM 中，结果用于同一环境下的前后对比，不代表生产容量\n\n");
+
+        out.append("## 参数\n\n| 参数 | 值 |\n| :--- | :--- |\n");
+        options.forEach((key, value) -> out.append("| `").append(key).append("` | ").append(value).append(" |\n"));
+
+        out.append("\n## 结果\n\n延迟从计划发送时间开始计算，只统计 2xx 响应，单位毫秒。\n\n");
+        out.append("| 场景 | 目标速率 (req/s) | 发送 | 成功 | 错误 | 吞吐 (req/s) | p50 | p99 | p99.9 | max |\n");
+        out.append("| :--- | ---: | ---: | ---: | ---: | ---: | ---: | ---: | ---: | ---: |\n");
+        for (OpenLoopDriver.Result result : results) {
+            out.append("| ").append(result.name)
+                    .append(" | ").append(format(result.targetRate))
+                    .append(" | ").append(result.sent.sum())
+                    .append(" | ").append(result.ok.sum())
+                    .append(" | ").append(result.errors())
+                    .append(" | ").append(format(result.throughput()))
+                    .append(" | ").append(millis(result.latency.getValueAtPercentile(50)))
+                    .append(" | ").append(millis(result.latency.getValueAtPercentile(99)))
+                    .append(" | ").append(millis(result.latency.getValueAtPercentile(99.9)))
+                    .append(" | ").append(millis(result.latency.getMaxValue()))
+                    .append(" |\n");
+        }
+
+        out.append("\n## 错误明细\n\n");
+        boolean anyError = false;
+        for (OpenLoopDriver.Result result : results) {
+            for (Map.Entry<String, Long> entry : result.errorBreakdown().entrySet()) {
+                out.append("- ").append(result.name).append("：").append(entry.getKey())
+                        .append(" × ").append(entry.getValue()).append('\n');
+                anyError = true;
+            }
+        }
+        if (!anyError) {
+            out.append("无\n");
+        }
+
+        out.append("\n## 上游替身\n\n");
+        out.append("- 压测期间收到请求 ").append(stubRequests).append(" 次，注入错误 ").append(stubErrors).append(" 次\n");
+        return out.toString();
+    }
+
+    private static Duration duration(Map<String, String> options, String key) {
+        return DurationStyle.detectAndParse(options.get(key));
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+
+    private static String millis(long micros) {
+        return String.format(Locale.ROOT, "%.2f", micros / 1000.0);
+    }
+}
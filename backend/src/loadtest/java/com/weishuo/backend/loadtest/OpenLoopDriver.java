@@ -0,0 +1,136 @@
+package com.weishuo.backend.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * 开环压测驱动：按固定到达速率发出请求，不等待上一个请求完成
+ * 延迟从计划发送时间开始计算，服务变慢时排队时间也计入结果，避免闭环压测的协调遗漏（coordinated omission）
+ */
+final class OpenLoopDriver {
+
+    private final String name;
+    private final double ratePerSecond;
+    private final HttpClient client;
+    private final LongFunction<HttpRequest> requests;
+
+    OpenLoopDriver(String name, double ratePerSecond, HttpClient client, LongFunction<HttpRequest> requests) {
+        this.name = name;
+        this.ratePerSecond = ratePerSecond;
+        this.client = client;
+        this.requests = requests;
+    }
+
+    /**
+     * 持续发送 duration 时长，然后最多等待 drainTimeout 让未完成的请求返回，超时未返回的计为错误
+     */
+    Result run(Duration duration, Duration drainTimeout) {
+        Result result = new Result(name, ratePerSecond);
+        long intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        long total = (long) (duration.toNanos() / (double) intervalNanos);
+        ConcurrentLinkedQueue<CompletableFuture<?>> inFlight = new ConcurrentLinkedQueue<>();
+
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            result.sent.increment();
+            CompletableFuture<HttpResponse<Void>> future = client.sendAsync(requests.apply(i),
+                    HttpResponse.BodyHandlers.discarding());
+            inFlight.add(future.whenComplete((response, ex) -> {
+                long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+                if (ex != null) {
+                    result.exception(ex);
+                } else {
+                    result.status(response.statusCode(), latencyMicros);
+                }
+            }));
+            // 只保留未完成的请求，避免长时间运行时队列无限增长
+            if ((i & 1023) == 0) {
+                inFlight.removeIf(CompletableFuture::isDone);
+            }
+        }
+        result.elapsedNanos = System.nanoTime() - start;
+
+        try {
+            CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0]))
+                    .get(drainTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            long pending = inFlight.stream().filter(future -> !future.isDone()).count();
+            result.timedOut.add(pending);
+        } catch (Exception ignored) {
+            // 单个请求的失败已在 whenComplete 中记录
+        }
+        return result;
+    }
+
+    static final class Result {
+        final String name;
+        final double targetRate;
+        final LongAdder sent = new LongAdder();
+        final LongAdder ok = new LongAdder();
+        final LongAdder timedOut = new LongAdder();
+        final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> exceptions = new ConcurrentHashMap<>();
+        /** 成功请求（2xx）的延迟，单位微秒 */
+        final Histogram latency = new ConcurrentHistogram(3);
+        long elapsedNanos;
+
+        private Result(String name, double targetRate) {
+            this.name = name;
+            this.targetRate = targetRate;
+        }
+
+        private void status(int status, long latencyMicros) {
+            statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+            if (status >= 200 && status < 300) {
+                ok.increment();
+                latency.recordValue(latencyMicros);
+            }
+        }
+
+        private void exception(Throwable ex) {
+            Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+            exceptions.computeIfAbsent(cause.getClass().getSimpleName(), key -> new LongAdder()).increment();
+        }
+
+        long errors() {
+            return sent.sum() - ok.sum();
+        }
+
+        double throughput() {
+            return ok.sum() / (elapsedNanos / 1e9);
+        }
+
+        Map<String, Long> errorBreakdown() {
+            Map<String, Long> breakdown = new TreeMap<>();
+            statuses.forEach((status, count) -> {
+                if (status < 200 || status >= 300) {
+                    breakdown.put("HTTP " + status, count.sum());
+                }
+            });
+            exceptions.forEach((type, count) -> breakdown.put(type, count.sum()));
+            if (timedOut.sum() > 0) {
+                breakdown.put("未在收尾时间内返回", timedOut.sum());
+            }
+            return breakdown;
+        }
+    }
+}
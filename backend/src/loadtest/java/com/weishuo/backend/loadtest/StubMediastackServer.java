@@ -0,0 +1,152 @@
+package com.weishuo.backend.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 内嵌的 Mediastack 替身，基于 JDK HttpServer，响应 GET /news
+ * 延迟、错误率和每页条数可配置；随机数使用固定种子，相同参数下的错误序列和文章内容可重复
+ * 每次响应都生成一批新文章（标题由词表随机组合），让入库、去重和检索索引都有真实的工作量
+ */
+final class StubMediastackServer implements AutoCloseable {
+
+    private static final String[] WORDS = {
+            "科技", "公司", "发布", "新品", "市场", "增长", "政策", "调整", "城市", "交通",
+            "教育", "改革", "医疗", "研究", "团队", "突破", "能源", "项目", "投资", "计划",
+            "体育", "赛事", "冠军", "球队", "文化", "展览", "旅游", "假期", "气象", "降温",
+            "芯片", "模型", "数据", "安全", "平台", "用户", "消费", "出口", "制造", "农业"};
+    private static final String[] SOURCES = {"新华社", "人民网", "央视新闻", "澎湃新闻", "财新网", "环球时报"};
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'+00:00'");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long latencyMillis;
+    private final double errorRate;
+    private final int pageSize;
+    private final Random random;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    StubMediastackServer(long latencyMillis, double errorRate, int pageSize, long seed) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.errorRate = errorRate;
+        this.pageSize = pageSize;
+        this.random = new Random(seed);
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stub-mediastack");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/news", this::handle);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    long requests() {
+        return requests.get();
+    }
+
+    long errors() {
+        return errors.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+            boolean fail;
+            String body;
+            synchronized (random) {
+                fail = random.nextDouble() < errorRate;
+                body = fail ? null : page(category(exchange.getRequestURI()));
+            }
+            if (fail) {
+                errors.incrementAndGet();
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 生成一页 Mediastack 格式的响应，调用方持有 random 的锁
+     */
+    private String page(String category) {
+        StringBuilder json = new StringBuilder(pageSize * 400);
+        json.append("{\"pagination\":{\"limit\":").append(pageSize)
+                .append(",\"offset\":0,\"count\":").append(pageSize)
+                .append(",\"total\":").append(pageSize).append("},\"data\":[");
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        for (int i = 0; i < pageSize; i++) {
+            long id = sequence.incrementAndGet();
+            String title = sentence(8);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"author\":\"记者").append(id % 97)
+                    .append("\",\"title\":\"").append(title)
+                    .append("\",\"description\":\"").append(title).append('，').append(sentence(24))
+                    .append("\",\"url\":\"https://stub.example.com/").append(category).append('/').append(id)
+                    .append("\",\"source\":\"").append(SOURCES[random.nextInt(SOURCES.length)])
+                    .append("\",\"image\":").append(i % 3 == 0 ? "null" : "\"https://img.example.com/" + id + ".jpg\"")
+                    .append(",\"category\":\"").append(category)
+                    .append("\",\"language\":\"zh\",\"country\":\"cn\",\"published_at\":\"")
+                    .append(TIMESTAMP.format(now.minusMinutes(i))).append("\"}");
+        }
+        return json.append("]}").toString();
+    }
+
+    private String sentence(int words) {
+        StringBuilder builder = new StringBuilder(words * 2);
+        for (int i = 0; i < words; i++) {
+            builder.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return builder.toString();
+    }
+
+    private static String category(URI uri) {
+        String query = uri.getRawQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                if (pair.startsWith("categories=")) {
+                    return pair.substring("categories=".length());
+                }
+            }
+        }
+        return "general";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -2,16 +2,23 @@ package com.weishuo.backend.auth;
 
 import com.weishuo.backend.auth.dto.AuthResponse;
 import com.weishuo.backend.auth.dto.LoginRequest;
+import com.weishuo.backend.auth.dto.RefreshTokenRequest;
 import com.weishuo.backend.auth.dto.RegisterRequest;
+import com.weishuo.backend.auth.dto.UsernameAvailabilityResponse;
 import jakarta.validation.Valid;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -23,12 +30,45 @@ public class AuthController {
 
     @PostMapping("/register")
     @ResponseStatus(HttpStatus.CREATED)
-    public AuthResponse register(@Valid @RequestBody RegisterRequest request) {
+    public CompletableFuture<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
         return authService.register(request);
     }
 
     @PostMapping("/login")
-    public AuthResponse login(@Valid @RequestBody LoginRequest request) {
+    public CompletableFuture<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
         return authService.login(request);
     }
+
+    @PostMapping("/refresh")
+    public AuthResponse refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return authService.refresh(request);
+    }
+
+    @PostMapping("/logout")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void logout(@RequestAttribute(name = AuthTokenFilter.CLAIMS_ATTRIBUTE, required = false) TokenClaims claims,
+                       @Valid @RequestBody(required = false) RefreshTokenRequest request) {
+        authService.logout(requireLogin(claims), request);
+    }
+
+    @GetMapping("/username-available")
+    public UsernameAvailabilityResponse usernameAvailable(@RequestParam String username) {
+        String trimmed = username.trim();
+        if (trimmed.length() < 3 || trimmed.length() > 50) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "用户名长度需在 3 到 50 个字符之间");
+        }
+        return authService.checkUsername(trimmed);
+    }
+
+    @GetMapping("/me")
+    public AuthResponse me(@RequestAttribute(name = AuthTokenFilter.CLAIMS_ATTRIBUTE, required = false) TokenClaims claims) {
+        return authService.me(requireLogin(claims));
+    }
+
+    private TokenClaims requireLogin(TokenClaims claims) {
+        if (claims == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "请先登录");
+        }
+        return claims;
+    }
 }
@@ -2,59 +2,191 @@ package com.weishuo.backend.auth;
 
 import com.weishuo.backend.auth.dto.AuthResponse;
 import com.weishuo.backend.auth.dto.LoginRequest;
+import com.weishuo.backend.auth.dto.RefreshTokenRequest;
 import com.weishuo.backend.auth.dto.RegisterRequest;
+import com.weishuo.backend.auth.dto.UsernameAvailabilityResponse;
 import com.weishuo.backend.user.User;
 import com.weishuo.backend.user.UserRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final TokenService tokenService;
+    private final UsernameBloomFilter usernameFilter;
+    /** 哈希完成后的数据库写入与签发令牌在此执行，哈希线程只做 BCrypt 计算 */
+    private final Executor taskExecutor;
+    private final Counter rehashed;
 
-    public AuthResponse register(RegisterRequest request) {
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "用户名已被占用");
-        }
+    public AuthService(UserRepository userRepository, PasswordHasher passwordHasher, TokenService tokenService,
+                       UsernameBloomFilter usernameFilter,
+                       @Qualifier("applicationTaskExecutor") Executor taskExecutor, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
+        this.tokenService = tokenService;
+        this.usernameFilter = usernameFilter;
+        this.taskExecutor = taskExecutor;
+        this.rehashed = meterRegistry.counter("auth.password.rehashed");
+    }
+
+    /**
+     * 注册：用户名查重在应用任务线程池执行，BCrypt 交给哈希线程池，请求线程立即释放
+     * 写库与签发令牌回到应用任务线程池，不占用数量与 CPU 核数相当的哈希线程
+     */
+    public CompletableFuture<AuthResponse> register(RegisterRequest request) {
+        String username = request.getUsername().trim();
+
+        return CompletableFuture.supplyAsync(() -> isTaken(username), taskExecutor).thenCompose(taken -> {
+            if (taken) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "用户名已被占用");
+            }
+            return passwordHasher.encode(request.getPassword());
+        }).thenApplyAsync(passwordHash -> {
+            User user = User.builder()
+                .username(username)
+                .passwordHash(passwordHash)
+                .displayName(request.getDisplayName().trim())
+                .email(trimOrNull(request.getEmail()))
+                .avatarUrl(trimOrNull(request.getAvatarUrl()))
+                    .build();
+
+            User saved;
+            try {
+                saved = userRepository.save(user);
+            } catch (DataIntegrityViolationException ex) {
+                // 查重与写入之间被并发注册抢先，由唯一约束兜底
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "用户名已被占用");
+            }
+            usernameFilter.put(saved.getUsername());
+            return toResponse(saved, "注册成功");
+        }, taskExecutor);
+    }
 
-        User user = User.builder()
-            .username(request.getUsername().trim())
-            .passwordHash(passwordEncoder.encode(request.getPassword()))
-            .displayName(request.getDisplayName().trim())
-            .email(trimOrNull(request.getEmail()))
-            .avatarUrl(trimOrNull(request.getAvatarUrl()))
+    public UsernameAvailabilityResponse checkUsername(String username) {
+        return UsernameAvailabilityResponse.builder()
+                .username(username)
+                .available(!isTaken(username))
                 .build();
+    }
+
+    /**
+     * 布隆过滤器判定不存在时直接返回，只有“可能存在”才查询数据库
+     */
+    private boolean isTaken(String username) {
+        if (!usernameFilter.mightContain(username)) {
+            return false;
+        }
+        boolean exists = userRepository.existsByUsername(username);
+        if (!exists) {
+            usernameFilter.recordFalsePositive(username);
+        }
+        return exists;
+    }
 
-        User saved = userRepository.save(user);
-        return toResponse(saved, "注册成功");
+    /**
+     * 登录：按用户名查询在应用任务线程池执行，请求线程不做阻塞的数据库访问
+     */
+    public CompletableFuture<AuthResponse> login(LoginRequest request) {
+        String username = request.getUsername().trim();
+
+        return CompletableFuture.supplyAsync(() -> userRepository.findByUsername(username)
+                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "用户名或密码错误")),
+                taskExecutor).thenCompose(user -> passwordHasher.matches(request.getPassword(), user.getPasswordHash())
+                .thenApplyAsync(matched -> {
+                    if (!matched) {
+                        throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "用户名或密码错误");
+                    }
+                    if (passwordHasher.needsRehash(user.getPasswordHash())) {
+                        rehash(user, request.getPassword());
+                    }
+                    return toResponse(user, "登录成功");
+                }, taskExecutor));
+    }
+
+    /**
+     * 存储的哈希强度低于当前配置时，用本次登录的明文重新哈希，不阻塞登录响应
+     * 线程池繁忙被拒绝时直接跳过，下次登录再试
+     */
+    private void rehash(User user, String rawPassword) {
+        passwordHasher.encode(rawPassword).whenCompleteAsync((passwordHash, ex) -> {
+            if (ex != null) {
+                log.debug("用户 {} 的密码重新哈希被跳过: {}", user.getUsername(), ex.getMessage());
+                return;
+            }
+            try {
+                user.setPasswordHash(passwordHash);
+                userRepository.save(user);
+                rehashed.increment();
+            } catch (RuntimeException saveEx) {
+                log.warn("保存用户 {} 的新密码哈希失败: {}", user.getUsername(), saveEx.getMessage());
+            }
+        }, taskExecutor);
     }
 
-    public AuthResponse login(LoginRequest request) {
-        User user = userRepository.findByUsername(request.getUsername().trim())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "用户名或密码错误"));
+    /**
+     * 用刷新令牌换取新的令牌对，只校验令牌，不查询 users 表
+     */
+    public AuthResponse refresh(RefreshTokenRequest request) {
+        TokenClaims claims = tokenService.verifyRefresh(request.getRefreshToken())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "登录已过期，请重新登录"));
+        TokenService.TokenPair tokens = tokenService.rotate(claims)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "登录已过期，请重新登录"));
+        return withTokens(fromClaims(claims, "刷新成功"), tokens);
+    }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "用户名或密码错误");
+    /**
+     * 退出登录：吊销当前访问令牌，请求体中带有同一用户的刷新令牌时一并吊销
+     */
+    public void logout(TokenClaims claims, RefreshTokenRequest request) {
+        tokenService.revoke(claims);
+        if (request != null) {
+            tokenService.verifyRefresh(request.getRefreshToken())
+                    .filter(refresh -> refresh.getUserId().equals(claims.getUserId()))
+                    .ifPresent(tokenService::revoke);
         }
+    }
 
-        return toResponse(user, "登录成功");
+    public AuthResponse me(TokenClaims claims) {
+        return fromClaims(claims, null).build();
     }
 
     private AuthResponse toResponse(User user, String message) {
-        return AuthResponse.builder()
+        return withTokens(AuthResponse.builder()
                 .id(user.getId())
                 .username(user.getUsername())
                 .displayName(user.getDisplayName())
                 .avatarUrl(user.getAvatarUrl())
                 .email(user.getEmail())
                 .createdAt(user.getCreatedAt())
-                .message(message)
+                .message(message), tokenService.issue(user));
+    }
+
+    private AuthResponse.AuthResponseBuilder fromClaims(TokenClaims claims, String message) {
+        return AuthResponse.builder()
+                .id(claims.getUserId())
+                .username(claims.getUsername())
+                .displayName(claims.getDisplayName())
+                .message(message);
+    }
+
+    private AuthResponse withTokens(AuthResponse.AuthResponseBuilder builder, TokenService.TokenPair tokens) {
+        return builder
+                .accessToken(tokens.getAccessToken())
+                .refreshToken(tokens.getRefreshToken())
+                .tokenType("Bearer")
+                .expiresIn(tokens.getExpiresIn())
                 .build();
     }
 
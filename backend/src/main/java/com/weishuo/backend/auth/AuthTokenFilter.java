@@ -0,0 +1,40 @@
+package com.weishuo.backend.auth;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * 解析 Authorization: Bearer 访问令牌，校验通过后将 {@link TokenClaims} 放入请求属性
+ * 令牌缺失或无效时按匿名请求继续处理，需要登录的接口自行返回 401
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@RequiredArgsConstructor
+public class AuthTokenFilter extends OncePerRequestFilter {
+
+    public static final String CLAIMS_ATTRIBUTE = "com.weishuo.backend.auth.claims";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final TokenService tokenService;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            tokenService.verifyAccess(header.substring(BEARER_PREFIX.length()).trim())
+                    .ifPresent(claims -> request.setAttribute(CLAIMS_ATTRIBUTE, claims));
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,27 @@
+package com.weishuo.backend.auth;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * 令牌中携带的用户身份，校验通过后作为请求属性传给控制器，不需要再查询 users 表
+ */
+@Value
+@Builder
+public class TokenClaims {
+
+    public static final String TYPE_ACCESS = "access";
+    public static final String TYPE_REFRESH = "refresh";
+
+    Long userId;
+    String username;
+    String displayName;
+    String type;
+    String tokenId;
+    long issuedAt;
+    long expiresAt;
+
+    public boolean isExpired(long nowEpochSecond) {
+        return expiresAt <= nowEpochSecond;
+    }
+}
@@ -0,0 +1,217 @@
+package com.weishuo.backend.auth;
+
+import com.weishuo.backend.config.AuthTokenProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 令牌吊销列表
+ * 内存中只保存未过期的 jti 及其过期时间，请求路径上只做一次哈希查找；新吊销的记录由后台线程批量写入 revoked_token，
+ * 同时拉取其他实例写入的记录，过期记录在内存和数据库中一并清理
+ */
+@Slf4j
+@Component
+public class TokenRevocationList {
+
+    private static final String INSERT_SQL = "insert into revoked_token (token_id, expires_at, revoked_at) values (?, ?, ?)";
+
+    private final AuthTokenProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Pending> pending = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService syncer;
+    private final List<Runnable> sweepListeners = new CopyOnWriteArrayList<>();
+
+    private final Counter revocations;
+    private final Counter syncFailures;
+
+    /** 上次从数据库拉取到的最新吊销时间，下次从这里往后拉取 */
+    private volatile Instant pulledUntil = Instant.EPOCH;
+
+    public TokenRevocationList(AuthTokenProperties properties, JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "auth-revocation-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.revocations = meterRegistry.counter("auth.token.revocations");
+        this.syncFailures = meterRegistry.counter("auth.token.revocation.sync.failures");
+        meterRegistry.gaugeMapSize("auth.token.revoked", List.of(), revoked);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            pull();
+            log.info("已加载 {} 条未过期的令牌吊销记录", revoked.size());
+        } catch (Exception ex) {
+            log.warn("加载令牌吊销记录失败，稍后重试: {}", ex.getMessage());
+        }
+        long interval = Math.max(100, properties.getRevocationSyncInterval().toMillis());
+        syncer.scheduleWithFixedDelay(this::syncSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return revoked.containsKey(tokenId);
+    }
+
+    /**
+     * 吊销令牌，立即在本实例生效，下一个同步周期写入数据库
+     *
+     * @return 本次调用是否完成了吊销，已吊销过的返回 false
+     */
+    public boolean revoke(String tokenId, long expiresAtEpochSecond) {
+        if (revoked.putIfAbsent(tokenId, expiresAtEpochSecond) != null) {
+            return false;
+        }
+        pending.add(new Pending(tokenId, expiresAtEpochSecond, Instant.now()));
+        revocations.increment();
+        return true;
+    }
+
+    /**
+     * 注册在每个同步周期执行的清理回调，供校验缓存清除过期条目
+     */
+    void onSweep(Runnable listener) {
+        sweepListeners.add(listener);
+    }
+
+    private void syncSafely() {
+        try {
+            flush();
+            pull();
+            purgeExpired();
+        } catch (Exception ex) {
+            syncFailures.increment();
+            log.warn("同步令牌吊销记录失败: {}", ex.getMessage());
+        }
+        for (Runnable listener : sweepListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException ex) {
+                log.warn("令牌缓存清理失败: {}", ex.getMessage());
+            }
+        }
+    }
+
+    private void flush() {
+        int batchSize = Math.max(1, properties.getRevocationBatchSize());
+        List<Pending> batch = new ArrayList<>(batchSize);
+        Pending next;
+        while ((next = pending.poll()) != null) {
+            batch.add(next);
+            if (batch.size() >= batchSize) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        try {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        bind(ps, batch.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                });
+            } catch (DuplicateKeyException ex) {
+                // 其他实例已写入同一 jti，逐行写入并跳过重复
+                for (Pending row : batch) {
+                    try {
+                        jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, row));
+                    } catch (DuplicateKeyException ignored) {
+                        // 已存在
+                    }
+                }
+            }
+        } catch (RuntimeException ex) {
+            // 写入失败的记录放回队列，内存中的吊销仍然有效
+            pending.addAll(batch);
+            throw ex;
+        }
+    }
+
+    private void bind(PreparedStatement ps, Pending row) throws SQLException {
+        ps.setString(1, row.tokenId);
+        ps.setTimestamp(2, Timestamp.from(Instant.ofEpochSecond(row.expiresAt)));
+        ps.setTimestamp(3, Timestamp.from(row.revokedAt));
+    }
+
+    /**
+     * 拉取其他实例新写入的吊销记录；时间窗口向前多取一个同步周期，容忍实例间的时钟偏差
+     */
+    private void pull() {
+        Instant since = pulledUntil.minus(properties.getRevocationSyncInterval());
+        Instant now = Instant.now();
+        jdbcTemplate.query("select token_id, expires_at, revoked_at from revoked_token where revoked_at >= ? and expires_at > ?",
+                rs -> {
+                    Instant revokedAt = rs.getTimestamp("revoked_at").toInstant();
+                    revoked.putIfAbsent(rs.getString("token_id"), rs.getTimestamp("expires_at").toInstant().getEpochSecond());
+                    if (revokedAt.isAfter(pulledUntil)) {
+                        pulledUntil = revokedAt;
+                    }
+                },
+                Timestamp.from(since.isBefore(Instant.EPOCH) ? Instant.EPOCH : since), Timestamp.from(now));
+    }
+
+    private void purgeExpired() {
+        long now = Instant.now().getEpochSecond();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        jdbcTemplate.update("delete from revoked_token where expires_at <= ?", Timestamp.from(Instant.ofEpochSecond(now)));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        syncer.shutdownNow();
+        try {
+            flush();
+        } catch (Exception ex) {
+            log.warn("关闭前写入令牌吊销记录失败: {}", ex.getMessage());
+        }
+    }
+
+    private static final class Pending {
+        private final String tokenId;
+        private final long expiresAt;
+        private final Instant revokedAt;
+
+        private Pending(String tokenId, long expiresAt, Instant revokedAt) {
+            this.tokenId = tokenId;
+            this.expiresAt = expiresAt;
+            this.revokedAt = revokedAt;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.weishuo.backend.auth;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weishuo.backend.config.AuthTokenProperties;
+import com.weishuo.backend.user.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+/**
+ * 签发与校验 HMAC-SHA256 签名的令牌（JWT 紧凑格式，头部带 kid 以支持密钥轮换）
+ * 校验只做一次 HMAC 计算和 JSON 解析，已校验的令牌缓存在内存中，命中时只检查过期时间和吊销列表
+ */
+@Slf4j
+@Service
+public class TokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final AuthTokenProperties properties;
+    private final TokenRevocationList revocationList;
+    private final ObjectMapper objectMapper;
+
+    /** 编码后的头部 -> 密钥，校验时直接按头部字符串查找，无需解析头部 JSON */
+    private final Map<String, SigningKey> keysByHeader = new HashMap<>();
+    private final SigningKey activeKey;
+    private final Map<String, TokenClaims> verified = new ConcurrentHashMap<>();
+
+    private final Timer verifyTimer;
+    private final Counter cacheHits;
+    private final Counter rejected;
+
+    public TokenService(AuthTokenProperties properties, TokenRevocationList revocationList,
+                        ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.revocationList = revocationList;
+        this.objectMapper = objectMapper;
+
+        SigningKey active = null;
+        for (AuthTokenProperties.SigningKey key : properties.getKeys()) {
+            SigningKey signingKey = new SigningKey(key.getId(),
+                    secretOf(key, properties.isAllowRandomSecret()), objectMapper);
+            keysByHeader.put(signingKey.header, signingKey);
+            if (key.getId().equals(properties.getActiveKey())) {
+                active = signingKey;
+            }
+        }
+        if (active == null) {
+            throw new IllegalStateException("auth.token.active-key 未出现在 auth.token.keys 中: " + properties.getActiveKey());
+        }
+        this.activeKey = active;
+
+        this.verifyTimer = Timer.builder("auth.token.verify")
+                .description("令牌签名校验耗时（不含缓存命中）")
+                .register(meterRegistry);
+        this.cacheHits = meterRegistry.counter("auth.token.cache.hits");
+        this.rejected = meterRegistry.counter("auth.token.rejected");
+        meterRegistry.gaugeMapSize("auth.token.cache.size", List.of(), verified);
+        revocationList.onSweep(this::evictExpired);
+    }
+
+    public TokenPair issue(User user) {
+        return issue(user.getId(), user.getUsername(), user.getDisplayName());
+    }
+
+    private TokenPair issue(Long userId, String username, String displayName) {
+        long now = Instant.now().getEpochSecond();
+        long accessExpiresAt = now + properties.getAccessTtl().toSeconds();
+        String accessToken = sign(userId, username, displayName, TokenClaims.TYPE_ACCESS, now, accessExpiresAt);
+        String refreshToken = sign(userId, username, displayName, TokenClaims.TYPE_REFRESH, now,
+                now + properties.getRefreshTtl().toSeconds());
+        return new TokenPair(accessToken, refreshToken, properties.getAccessTtl().toSeconds());
+    }
+
+    /**
+     * 用已校验的刷新令牌换取新的令牌对；旧刷新令牌立即吊销，重复使用（包括并发的两次刷新）只有一次成功
+     */
+    public Optional<TokenPair> rotate(TokenClaims refreshClaims) {
+        if (!revocationList.revoke(refreshClaims.getTokenId(), refreshClaims.getExpiresAt())) {
+            return Optional.empty();
+        }
+        return Optional.of(issue(refreshClaims.getUserId(), refreshClaims.getUsername(), refreshClaims.getDisplayName()));
+    }
+
+    public void revoke(TokenClaims claims) {
+        revocationList.revoke(claims.getTokenId(), claims.getExpiresAt());
+    }
+
+    public Optional<TokenClaims> verifyAccess(String token) {
+        return verify(token, TokenClaims.TYPE_ACCESS);
+    }
+
+    public Optional<TokenClaims> verifyRefresh(String token) {
+        return verify(token, TokenClaims.TYPE_REFRESH);
+    }
+
+    private Optional<TokenClaims> verify(String token, String expectedType) {
+        long now = Instant.now().getEpochSecond();
+        TokenClaims claims = verified.get(token);
+        if (claims != null) {
+            cacheHits.increment();
+        } else {
+            long start = System.nanoTime();
+            claims = parse(token);
+            verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (claims == null) {
+                rejected.increment();
+                return Optional.empty();
+            }
+            if (verified.size() < properties.getVerifyCacheSize()) {
+                verified.put(token, claims);
+            }
+        }
+        if (!expectedType.equals(claims.getType()) || claims.isExpired(now) || revocationList.isRevoked(claims.getTokenId())) {
+            rejected.increment();
+            return Optional.empty();
+        }
+        return Optional.of(claims);
+    }
+
+    /**
+     * 校验签名并解析载荷，签名不符或格式错误返回 null
+     */
+    private TokenClaims parse(String token) {
+        int headerEnd = token.indexOf('.');
+        int payloadEnd = token.lastIndexOf('.');
+        if (headerEnd <= 0 || payloadEnd <= headerEnd) {
+            return null;
+        }
+        SigningKey key = keysByHeader.get(token.substring(0, headerEnd));
+        if (key == null) {
+            return null;
+        }
+        try {
+            byte[] expected = key.sign(token.substring(0, payloadEnd));
+            byte[] actual = DECODER.decode(token.substring(payloadEnd + 1));
+            if (!MessageDigest.isEqual(expected, actual)) {
+                return null;
+            }
+            JsonNode payload = objectMapper.readTree(DECODER.decode(token.substring(headerEnd + 1, payloadEnd)));
+            if (!properties.getIssuer().equals(payload.path("iss").asText())) {
+                return null;
+            }
+            return TokenClaims.builder()
+                    .userId(payload.path("sub").asLong())
+                    .username(payload.path("usr").asText())
+                    .displayName(payload.path("dn").asText(null))
+                    .type(payload.path("typ").asText())
+                    .tokenId(payload.path("jti").asText())
+                    .issuedAt(payload.path("iat").asLong())
+                    .expiresAt(payload.path("exp").asLong())
+                    .build();
+        } catch (Exception ex) {
+            log.debug("令牌解析失败: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    private String sign(Long userId, String username, String displayName, String type, long issuedAt, long expiresAt) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("iss", properties.getIssuer());
+        payload.put("sub", userId);
+        payload.put("usr", username);
+        payload.put("dn", displayName);
+        payload.put("typ", type);
+        payload.put("jti", UUID.randomUUID().toString());
+        payload.put("iat", issuedAt);
+        payload.put("exp", expiresAt);
+        try {
+            String signingInput = activeKey.header + "." + ENCODER.encodeToString(objectMapper.writeValueAsBytes(payload));
+            return signingInput + "." + ENCODER.encodeToString(activeKey.sign(signingInput));
+        } catch (Exception ex) {
+            throw new IllegalStateException("签发令牌失败", ex);
+        }
+    }
+
+    private void evictExpired() {
+        long now = Instant.now().getEpochSecond();
+        verified.values().removeIf(claims -> claims.isExpired(now));
+    }
+
+    private static byte[] secretOf(AuthTokenProperties.SigningKey key, boolean allowRandomSecret) {
+        if (!StringUtils.hasText(key.getId())) {
+            throw new IllegalStateException("令牌签名密钥必须配置 id");
+        }
+        if (!StringUtils.hasText(key.getSecret())) {
+            if (!allowRandomSecret) {
+                throw new IllegalStateException("令牌签名密钥 " + key.getId() + " 未配置 secret，请设置 AUTH_TOKEN_SECRET");
+            }
+            log.warn("令牌签名密钥 {} 未配置 secret，使用随机密钥，重启后已签发的令牌全部失效", key.getId());
+            byte[] secret = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(secret);
+            return secret;
+        }
+        byte[] secret = key.getSecret().getBytes(StandardCharsets.UTF_8);
+        if (secret.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("令牌签名密钥 " + key.getId() + " 长度不足 " + MIN_SECRET_BYTES + " 字节");
+        }
+        return secret;
+    }
+
+    @Value
+    public static class TokenPair {
+        String accessToken;
+        String refreshToken;
+        long expiresIn;
+    }
+
+    private static final class SigningKey {
+        private final String header;
+        private final ThreadLocal<Mac> mac;
+
+        private SigningKey(String id, byte[] secret, ObjectMapper objectMapper) {
+            Map<String, String> header = new LinkedHashMap<>();
+            header.put("alg", "HS256");
+            header.put("typ", "JWT");
+            header.put("kid", id);
+            try {
+                this.header = ENCODER.encodeToString(objectMapper.writeValueAsBytes(header));
+            } catch (Exception ex) {
+                throw new IllegalStateException("生成令牌头部失败", ex);
+            }
+            SecretKeySpec spec = new SecretKeySpec(secret, ALGORITHM);
+            // Mac 不是线程安全的，每个线程持有一个已初始化的实例
+            this.mac = ThreadLocal.withInitial(() -> {
+                try {
+                    Mac instance = Mac.getInstance(ALGORITHM);
+                    instance.init(spec);
+                    return instance;
+                } catch (GeneralSecurityException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            });
+        }
+
+        private byte[] sign(String signingInput) {
+            return mac.get().doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+}
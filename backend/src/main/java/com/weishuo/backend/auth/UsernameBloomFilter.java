@@ -0,0 +1,295 @@
+package com.weishuo.backend.auth;
+
+import com.weishuo.backend.config.UsernameFilterProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 已注册用户名的布隆过滤器
+ * 判定“不存在”时一定不存在，可直接答复用户名可用；判定“可能存在”时再查询数据库
+ * 启动时从 users 表构建，注册成功后追加；用户数超过容量时在后台按两倍容量重建，重建完成前继续使用旧过滤器
+ */
+@Slf4j
+@Component
+public class UsernameBloomFilter {
+
+    private static final int SCAN_FETCH_SIZE = 1000;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final UsernameFilterProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ExecutorService rebuilder;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    /** 未构建完成时为 null，此时所有查询都视为“可能存在” */
+    private volatile Bits current;
+    /** 重建过程中的新过滤器，期间的注册同时写入新旧两个过滤器 */
+    private volatile Bits building;
+
+    private final Counter negatives;
+    private final Counter positives;
+    private final Counter bypassed;
+    private final Counter falsePositives;
+    private final Counter rebuilds;
+
+    public UsernameBloomFilter(UsernameFilterProperties properties, JdbcTemplate jdbcTemplate,
+                               MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "auth-username-filter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.negatives = meterRegistry.counter("auth.username.filter.checks", "result", "negative");
+        this.positives = meterRegistry.counter("auth.username.filter.checks", "result", "positive");
+        this.bypassed = meterRegistry.counter("auth.username.filter.checks", "result", "bypassed");
+        this.falsePositives = meterRegistry.counter("auth.username.filter.false.positives");
+        this.rebuilds = meterRegistry.counter("auth.username.filter.rebuilds");
+        Gauge.builder("auth.username.filter.expected.fpp", this, filter -> {
+                    Bits bits = filter.current;
+                    return bits == null ? 1.0 : bits.expectedFalsePositiveRate();
+                })
+                .description("按当前置位比例估算的误判率")
+                .register(meterRegistry);
+        Gauge.builder("auth.username.filter.insertions", this, filter -> {
+                    Bits bits = filter.current;
+                    return bits == null ? 0 : bits.insertions.get();
+                })
+                .register(meterRegistry);
+        Gauge.builder("auth.username.filter.capacity", this, filter -> {
+                    Bits bits = filter.current;
+                    return bits == null ? 0 : bits.capacity;
+                })
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("用户名布隆过滤器已关闭");
+            return;
+        }
+        scheduleRebuild(0);
+    }
+
+    /**
+     * 用户名是否可能已被注册；返回 false 时一定未注册
+     * 归一化后仍含非 ASCII 字符的用户名不经过滤器，直接视为“可能存在”交给数据库判断
+     */
+    public boolean mightContain(String username) {
+        Bits bits = current;
+        if (bits == null) {
+            return true;
+        }
+        String key = normalize(username);
+        if (!isCovered(key)) {
+            bypassed.increment();
+            return true;
+        }
+        boolean result = bits.mightContain(key);
+        (result ? positives : negatives).increment();
+        return result;
+    }
+
+    /**
+     * 记录一次误判：过滤器判定可能存在，数据库中实际不存在；未经过滤器的用户名不计入
+     */
+    public void recordFalsePositive(String username) {
+        if (current != null && isCovered(normalize(username))) {
+            falsePositives.increment();
+        }
+    }
+
+    /**
+     * 新用户写入数据库并提交后调用
+     */
+    public void put(String username) {
+        String key = normalize(username);
+        Bits next = building;
+        if (next != null) {
+            next.put(key);
+        }
+        Bits bits = current;
+        if (bits != null) {
+            bits.put(key);
+            if (bits.insertions.get() > bits.capacity) {
+                scheduleRebuild(bits.insertions.get());
+            }
+        }
+    }
+
+    private void scheduleRebuild(long knownUsers) {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            rebuilder.execute(() -> {
+                try {
+                    rebuild(knownUsers);
+                } catch (Exception ex) {
+                    log.warn("构建用户名布隆过滤器失败: {}", ex.getMessage());
+                } finally {
+                    building = null;
+                    rebuilding.set(false);
+                }
+            });
+        } catch (RuntimeException ex) {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * 先发布新过滤器再扫描 users 表：扫描开始后提交的注册由 put 写入新过滤器，扫描开始前提交的由扫描读到，不会漏掉
+     */
+    private void rebuild(long knownUsers) {
+        Long count = jdbcTemplate.queryForObject("select count(*) from users", Long.class);
+        long users = Math.max(knownUsers, count == null ? 0 : count);
+        long capacity = Math.max(properties.getExpectedInsertions(), users * 2);
+        Bits next = new Bits(capacity, properties.getFalsePositiveRate());
+        building = next;
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("select username from users");
+            statement.setFetchSize(SCAN_FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            next.put(normalize(rs.getString(1)));
+        });
+
+        current = next;
+        rebuilds.increment();
+        log.info("用户名布隆过滤器已构建: {} 个用户名，容量 {}，{} 位，{} 个哈希函数",
+                next.insertions.get(), capacity, next.bitCount, next.hashCount);
+    }
+
+    /**
+     * 按 MySQL utf8mb4_0900_ai_ci 的比较方式归一化：兼容分解（全角转半角、拆开连字）后去掉组合附加符号，再转小写
+     * 这样 José、JOSE、ｊｏｓｅ 都得到 jose；归一化只会合并更多用户名，增加“可能存在”的判定，不会产生漏判
+     */
+    static String normalize(String username) {
+        String decomposed = Normalizer.normalize(username.trim(), Normalizer.Form.NFKD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 排序规则还有 ß 与 ss 等归一化覆盖不到的等价关系，只有可打印 ASCII 的结果能保证与数据库判定一致
+     */
+    private static boolean isCovered(String key) {
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < 0x20 || c > 0x7e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * 固定大小的位数组，按 64 位分段存放在 AtomicLongArray 中，写入通过 CAS 置位，读取无锁
+     */
+    private static final class Bits {
+        private final long capacity;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLongArray words;
+        private final AtomicLong insertions = new AtomicLong();
+
+        private Bits(long capacity, double falsePositiveRate) {
+            double rate = Math.min(0.5, Math.max(1e-9, falsePositiveRate));
+            long bits = (long) Math.ceil(-capacity * Math.log(rate) / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+            this.capacity = capacity;
+            this.bitCount = (long) wordCount * 64;
+            this.hashCount = (int) Math.max(1, Math.round((double) bitCount / capacity * Math.log(2)));
+            this.words = new AtomicLongArray(wordCount);
+        }
+
+        private void put(String key) {
+            long h1 = hash64(key);
+            long h2 = mix(h1 + 0x9e3779b97f4a7c15L) | 1;
+            boolean changed = false;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long word = words.get(index);
+                while ((word & mask) == 0) {
+                    if (words.compareAndSet(index, word, word | mask)) {
+                        changed = true;
+                        break;
+                    }
+                    word = words.get(index);
+                }
+            }
+            if (changed) {
+                insertions.incrementAndGet();
+            }
+        }
+
+        private boolean mightContain(String key) {
+            long h1 = hash64(key);
+            long h2 = mix(h1 + 0x9e3779b97f4a7c15L) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * 误判率约为 (置位比例)^k，按实际置位数估算，比按插入数计算更能反映当前状态
+         */
+        private double expectedFalsePositiveRate() {
+            long set = 0;
+            for (int i = 0; i < words.length(); i++) {
+                set += Long.bitCount(words.get(i));
+            }
+            return Math.pow((double) set / bitCount, hashCount);
+        }
+
+        /**
+         * FNV-1a 64 位哈希加一轮混合，用两个派生哈希模拟 k 个哈希函数
+         */
+        private static long hash64(String key) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < key.length(); i++) {
+                h ^= key.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            return mix(h);
+        }
+
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -15,4 +15,9 @@ public class AuthResponse {
     String email;
     Instant createdAt;
     String message;
+    String accessToken;
+    String refreshToken;
+    String tokenType;
+    /** 访问令牌的有效秒数 */
+    Long expiresIn;
 }
@@ -0,0 +1,17 @@
+package com.weishuo.backend.auth.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+@Value
+@Builder
+@Jacksonized
+public class RefreshTokenRequest {
+
+    @NotBlank
+    @Size(max = 2048)
+    String refreshToken;
+}
@@ -0,0 +1,12 @@
+package com.weishuo.backend.auth.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class UsernameAvailabilityResponse {
+
+    String username;
+    boolean available;
+}
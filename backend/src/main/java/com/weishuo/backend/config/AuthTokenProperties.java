@@ -0,0 +1,54 @@
+package com.weishuo.backend.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "auth.token")
+@Getter
+@Setter
+public class AuthTokenProperties {
+
+    /** 令牌签发方，写入 iss 并在校验时比对。 */
+    private String issuer = "weishuo";
+
+    /** 访问令牌有效期。 */
+    private Duration accessTtl = Duration.ofMinutes(15);
+
+    /** 刷新令牌有效期。 */
+    private Duration refreshTtl = Duration.ofDays(14);
+
+    /** 当前用于签名的密钥 ID，必须出现在 keys 中。 */
+    private String activeKey = "default";
+
+    /** 可用于校验的密钥；轮换时先加入新密钥并切换 activeKey，旧令牌全部过期后再移除旧密钥。 */
+    private List<SigningKey> keys = new ArrayList<>();
+
+    /** 密钥未配置 secret 时是否允许使用随机密钥，仅用于本地开发；mysql 环境关闭，缺少密钥时启动失败。 */
+    private boolean allowRandomSecret = true;
+
+    /** 已校验令牌缓存的最大条数。 */
+    private int verifyCacheSize = 10000;
+
+    /** 吊销记录与数据库同步的间隔。 */
+    private Duration revocationSyncInterval = Duration.ofSeconds(5);
+
+    /** 每次写入数据库的吊销记录上限。 */
+    private int revocationBatchSize = 500;
+
+    @Getter
+    @Setter
+    public static class SigningKey {
+
+        /** 密钥 ID，写入令牌头部的 kid。 */
+        private String id;
+
+        /** HMAC-SHA256 密钥，至少 32 字节；为空且 allowRandomSecret 开启时随机生成，重启后已签发的令牌失效。 */
+        private String secret;
+    }
+}
@@ -0,0 +1,23 @@
+package com.weishuo.backend.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "news.cache")
+@Getter
+@Setter
+public class NewsCacheProperties {
+
+    /** 频道缓存的新鲜期，过期后先返回旧数据并在后台刷新。 */
+    private Duration ttl = Duration.ofSeconds(60);
+
+    /** 过期数据最多可继续返回的时长，超过后视为未命中。 */
+    private Duration maxStale = Duration.ofMinutes(30);
+
+    /** 最多缓存的频道数量，超出后淘汰最久未访问的频道。 */
+    private int maxEntries = 32;
+}
@@ -0,0 +1,75 @@
+package com.weishuo.backend.config;
+
+import io.netty.channel.ChannelOption;
+import java.time.Duration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+@Configuration
+public class NewsClientConfig {
+
+    /**
+     * 新闻 API 专用连接池，连接在请求之间复用，并向 Micrometer 上报活跃、空闲和等待获取的连接数
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider newsConnectionProvider(NewsProperties properties) {
+        NewsProperties.Client client = properties.getClient();
+        return ConnectionProvider.builder("news-api")
+                .maxConnections(client.getMaxConnections())
+                .pendingAcquireMaxCount(client.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(client.getPendingAcquireTimeout())
+                .maxIdleTime(client.getMaxIdleTime())
+                .maxLifeTime(client.getMaxLifeTime())
+                .evictInBackground(Duration.ofSeconds(30))
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * 共享的新闻 API 客户端，只在启动时根据 NewsProperties 构建一次
+     */
+    @Bean
+    public WebClient newsWebClient(WebClient.Builder builder, NewsProperties properties,
+                                   ConnectionProvider newsConnectionProvider) {
+        return buildClient(builder, properties.getClient(), newsConnectionProvider, properties.getBaseUrl());
+    }
+
+    /**
+     * NewsAPI 客户端，与 Mediastack 共用同一个连接池和连接参数
+     */
+    @Bean
+    public WebClient newsApiWebClient(WebClient.Builder builder, NewsProperties properties,
+                                      NewsProvidersProperties providersProperties,
+                                      ConnectionProvider newsConnectionProvider) {
+        return buildClient(builder, properties.getClient(), newsConnectionProvider,
+                providersProperties.getNewsapi().getBaseUrl());
+    }
+
+    /**
+     * builder 是原型作用域，每次注入都是新实例，两个客户端的配置互不影响
+     */
+    private WebClient buildClient(WebClient.Builder builder, NewsProperties.Client client,
+                                  ConnectionProvider connectionProvider, String baseUrl) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) client.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(client.getReadTimeout())
+                .keepAlive(true)
+                .compress(true);
+        if (client.isHttp2() && baseUrl.startsWith("https")) {
+            httpClient = httpClient.secure().protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+
+        return builder
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs()
+                        .maxInMemorySize((int) client.getMaxInMemorySize().toBytes()))
+                .build();
+    }
+}
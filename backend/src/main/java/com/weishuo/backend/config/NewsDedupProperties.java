@@ -0,0 +1,25 @@
+package com.weishuo.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "news.dedup")
+@Getter
+@Setter
+public class NewsDedupProperties {
+
+    /** 是否在入库和返回前过滤近似重复的新闻。 */
+    private boolean enabled = true;
+
+    /** SimHash 汉明距离不超过该值视为近似重复，指纹按该值加一切分索引段，最大 15。 */
+    private int maxDistance = 4;
+
+    /** 参与比对的最近新闻数量，超出后淘汰最早的指纹。 */
+    private int capacity = 20000;
+
+    /** 词项少于该数量的短文本指纹不可靠，不参与判重。 */
+    private int minTokens = 8;
+}
@@ -0,0 +1,23 @@
+package com.weishuo.backend.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "news.engagement")
+@Getter
+@Setter
+public class NewsEngagementProperties {
+
+    /** 内存中的互动增量写回数据库的间隔。 */
+    private Duration flushInterval = Duration.ofSeconds(5);
+
+    /** 每次批量写回的最大条数。 */
+    private int batchSize = 500;
+
+    /** 超过该时长未被访问且没有待写回增量的计数器会从内存中移除。 */
+    private Duration idleTimeout = Duration.ofMinutes(30);
+}
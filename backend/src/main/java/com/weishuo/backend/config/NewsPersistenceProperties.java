@@ -0,0 +1,39 @@
+package com.weishuo.backend.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "news.persistence")
+@Getter
+@Setter
+public class NewsPersistenceProperties {
+
+    /** 执行数据库读写的最大线程数。 */
+    private int schedulerThreads = 4;
+
+    /** 数据库任务的最大排队数量，超出后直接拒绝。 */
+    private int schedulerQueueCapacity = 256;
+
+    /** 异步写入队列可暂存的新闻条数。 */
+    private int queueCapacity = 2000;
+
+    /** 每次批量写入数据库的最大条数。 */
+    private int batchSize = 200;
+
+    /** 队列未攒满一批时的最长等待时间。 */
+    private Duration flushInterval = Duration.ofSeconds(2);
+
+    /** 队列满时的处理策略。 */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+
+    public enum OverflowPolicy {
+        /** 丢弃新到达的新闻。 */
+        DROP_NEWEST,
+        /** 丢弃队列中最早的新闻，为新数据腾出空间。 */
+        DROP_OLDEST
+    }
+}
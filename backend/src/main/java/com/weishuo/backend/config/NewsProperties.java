@@ -1,11 +1,13 @@
 package com.weishuo.backend.config;
 
+import java.time.Duration;
 import java.util.Locale;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 
 @Configuration
 @ConfigurationProperties(prefix = "news.api")
@@ -28,6 +30,24 @@ public class NewsProperties {
     /** 返回的记录数。 */
     private int pageSize = 10;
 
+    /** 单次请求远程 API 的超时时间。 */
+    private Duration timeout = Duration.ofSeconds(5);
+
+    /** 是否在后台定时预取所有频道。 */
+    private boolean prefetchEnabled = true;
+
+    /** 后台预取的间隔，频道缓存的新鲜期应大于该值。 */
+    private Duration refreshInterval = Duration.ofMinutes(5);
+
+    /** 每次预取间隔上叠加的随机抖动上限。 */
+    private Duration refreshJitter = Duration.ofSeconds(30);
+
+    /** 每天允许调用远程 API 的次数，0 表示不限制。 */
+    private int dailyQuota = 1000;
+
+    /** 共享 HTTP 客户端的连接池配置。 */
+    private Client client = new Client();
+
     public String normalizedCountry() {
         return StringUtils.hasText(country) ? country.toLowerCase(Locale.ROOT) : "cn";
     }
@@ -39,4 +59,36 @@ public class NewsProperties {
     public boolean isConfigured() {
         return StringUtils.hasText(apiKey);
     }
+
+    @Getter
+    @Setter
+    public static class Client {
+
+        /** 连接池最大连接数。 */
+        private int maxConnections = 50;
+
+        /** 等待获取连接的最大排队数。 */
+        private int pendingAcquireMaxCount = 200;
+
+        /** 等待获取连接的最长时间。 */
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+
+        /** 空闲连接的保留时间。 */
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        /** 单个连接的最长存活时间。 */
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+
+        /** 建立 TCP 连接的超时时间。 */
+        private Duration connectTimeout = Duration.ofSeconds(2);
+
+        /** 请求发出后等待响应的超时时间；整次调用另受熔断器的自适应超时约束。 */
+        private Duration readTimeout = Duration.ofSeconds(5);
+
+        /** 单个响应允许缓存在内存中的最大字节数。 */
+        private DataSize maxInMemorySize = DataSize.ofMegabytes(2);
+
+        /** 基础地址为 https 时是否协商 HTTP/2。 */
+        private boolean http2 = true;
+    }
 }
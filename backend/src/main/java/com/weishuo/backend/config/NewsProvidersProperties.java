@@ -0,0 +1,67 @@
+package com.weishuo.backend.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+@Configuration
+@ConfigurationProperties(prefix = "news.providers")
+@Getter
+@Setter
+public class NewsProvidersProperties {
+
+    /** 第一个提供方返回后，继续等待其他提供方结果的最长时间。 */
+    private Duration mergeWindow = Duration.ofMillis(300);
+
+    /** Mediastack，基础地址与 Key 沿用 news.api 配置。 */
+    private Provider mediastack = new Provider();
+
+    /** NewsAPI（newsapi.org），默认关闭。 */
+    private NewsApi newsapi = new NewsApi();
+
+    @Getter
+    @Setter
+    public static class Provider {
+
+        /** 是否启用该提供方。 */
+        private boolean enabled = true;
+
+        /** 单次抓取（含重试）的总超时，超时后放弃该提供方本轮结果。 */
+        private Duration timeout = Duration.ofSeconds(6);
+
+        /** 对冲请求延迟：超过该时间仍未返回时再发一次相同请求，取先返回的结果；为空表示不对冲。 */
+        private Duration hedgeDelay;
+    }
+
+    @Getter
+    @Setter
+    public static class NewsApi extends Provider {
+
+        /** API 基础地址。 */
+        private String baseUrl = "https://newsapi.org/v2";
+
+        /** NewsAPI 发放的 API Key。 */
+        private String apiKey;
+
+        /** 国家代码。 */
+        private String country = "cn";
+
+        /** 返回的记录数。 */
+        private int pageSize = 20;
+
+        /** 每日调用配额，与 Mediastack 的配额分开计算；小于等于 0 表示不限制。 */
+        private int dailyQuota = 100;
+
+        public NewsApi() {
+            setEnabled(false);
+            setTimeout(Duration.ofSeconds(3));
+        }
+
+        public boolean isConfigured() {
+            return StringUtils.hasText(apiKey);
+        }
+    }
+}
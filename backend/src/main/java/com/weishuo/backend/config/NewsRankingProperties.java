@@ -0,0 +1,23 @@
+package com.weishuo.backend.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "news.ranking")
+@Getter
+@Setter
+public class NewsRankingProperties {
+
+    /** 每个分类参与排名的候选新闻数量，分数最低的超出部分被淘汰。 */
+    private int capacity = 500;
+
+    /** 时间衰减常数：发布时间每晚这么久，互动量需增加 10 倍才能保持同一名次。 */
+    private Duration decay = Duration.ofHours(12);
+
+    /** 单次请求最多返回的条数。 */
+    private int maxLimit = 50;
+}
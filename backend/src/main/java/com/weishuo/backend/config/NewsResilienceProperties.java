@@ -0,0 +1,47 @@
+package com.weishuo.backend.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "news.resilience")
+@Getter
+@Setter
+public class NewsResilienceProperties {
+
+    /** 统计失败率的滑动窗口大小（最近 N 次调用）。 */
+    private int slidingWindowSize = 20;
+
+    /** 窗口内至少有多少次调用才开始计算失败率。 */
+    private int minimumCalls = 10;
+
+    /** 失败率达到该比例时熔断。 */
+    private double failureRateThreshold = 0.5;
+
+    /** 熔断后拒绝调用的时长，之后进入半开状态。 */
+    private Duration openDuration = Duration.ofSeconds(30);
+
+    /** 半开状态允许的试探调用次数，全部成功后恢复。 */
+    private int halfOpenCalls = 3;
+
+    /** 计算自适应超时所用的延迟分位数。 */
+    private double timeoutPercentile = 0.99;
+
+    /** 自适应超时 = 分位延迟 × 该倍数。 */
+    private double timeoutMultiplier = 2.0;
+
+    /** 自适应超时的下限，上限为 news.api.timeout。 */
+    private Duration minTimeout = Duration.ofMillis(500);
+
+    /** 样本数达到该值后才启用自适应超时。 */
+    private int minLatencySamples = 20;
+
+    /** 每次调用为重试预算存入的令牌数，即允许的重试比例。 */
+    private double retryRatio = 0.1;
+
+    /** 重试预算的令牌上限。 */
+    private int maxRetryTokens = 10;
+}
@@ -0,0 +1,64 @@
+package com.weishuo.backend.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "news.retention")
+@Getter
+@Setter
+public class NewsRetentionProperties {
+
+    /** 是否定期清理 news_backup；清理是硬删除，默认关闭。 */
+    private boolean enabled = false;
+
+    /** 清理任务的执行间隔。 */
+    private Duration interval = Duration.ofHours(1);
+
+    /** 默认保留时长，按发布时间计算。 */
+    private Duration maxAge = Duration.ofDays(30);
+
+    /** 默认每个分类最多保留的条数，0 表示不限制。 */
+    private int maxRowsPerCategory = 10000;
+
+    /** 每批删除的最大条数，批次越小单次持锁时间越短。 */
+    private int batchSize = 500;
+
+    /** 两批之间的停顿，避免清理占满数据库。 */
+    private Duration batchPause = Duration.ofMillis(100);
+
+    /** 是否在删除前将记录移入按月分区的归档表。 */
+    private boolean archiveEnabled = false;
+
+    /** MySQL 下归档表提前创建的月份分区数（含当月）。 */
+    private int archivePartitionsAhead = 3;
+
+    /** 按分类覆盖的保留策略，未配置的字段沿用默认值。 */
+    private Map<String, Policy> categories = new HashMap<>();
+
+    public Duration maxAgeFor(String category) {
+        Policy policy = categories.get(category);
+        return policy != null && policy.getMaxAge() != null ? policy.getMaxAge() : maxAge;
+    }
+
+    public int maxRowsFor(String category) {
+        Policy policy = categories.get(category);
+        return policy != null && policy.getMaxRows() != null ? policy.getMaxRows() : maxRowsPerCategory;
+    }
+
+    @Getter
+    @Setter
+    public static class Policy {
+
+        /** 该分类的保留时长。 */
+        private Duration maxAge;
+
+        /** 该分类最多保留的条数。 */
+        private Integer maxRows;
+    }
+}
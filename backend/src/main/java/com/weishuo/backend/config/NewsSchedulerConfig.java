@@ -0,0 +1,21 @@
+package com.weishuo.backend.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+public class NewsSchedulerConfig {
+
+    /**
+     * JPA 是阻塞调用，统一放到有界调度器上执行，避免占用 Netty 事件循环线程
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler persistenceScheduler(NewsPersistenceProperties properties) {
+        return Schedulers.newBoundedElastic(
+                properties.getSchedulerThreads(),
+                properties.getSchedulerQueueCapacity(),
+                "news-db");
+    }
+}
@@ -0,0 +1,34 @@
+package com.weishuo.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "news.search")
+@Getter
+@Setter
+public class NewsSearchProperties {
+
+    /** 是否启用全文检索索引。 */
+    private boolean enabled = true;
+
+    /** 索引文件所在目录。 */
+    private String directory = "data/search";
+
+    /** 追赶数据库新增记录时每批读取的行数。 */
+    private int catchUpBatchSize = 500;
+
+    /** 单次搜索最多返回的条数。 */
+    private int maxResults = 50;
+
+    /** 查询最多使用的词项数量，过长的查询只取前面部分。 */
+    private int maxQueryTerms = 32;
+
+    /** 已删除文档占比达到该值时压缩日志和内存索引。 */
+    private double compactionRatio = 0.2;
+
+    /** 触发压缩所需的最少已删除文档数，避免小索引频繁重写日志。 */
+    private int compactionMinDeleted = 1000;
+}
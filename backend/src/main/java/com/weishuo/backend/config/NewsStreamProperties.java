@@ -0,0 +1,26 @@
+package com.weishuo.backend.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "news.stream")
+@Getter
+@Setter
+public class NewsStreamProperties {
+
+    /** 心跳间隔，防止空闲连接被代理或浏览器断开。 */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /** 推送连接的最长保持时间，到期后服务端关闭连接，浏览器 EventSource 会自动重连。 */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /** 每个订阅者最多缓冲的未发送新闻条数，超出后丢弃最旧的。 */
+    private int subscriberBuffer = 256;
+
+    /** 每个频道记住的已推送新闻 id 数量，用于去重。 */
+    private int seenCapacity = 1000;
+}
@@ -0,0 +1,22 @@
+package com.weishuo.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "auth.password")
+@Getter
+@Setter
+public class PasswordHashingProperties {
+
+    /** BCrypt 的 cost 因子，每加 1 耗时翻倍；调高后旧密码在下次登录时自动重新哈希。 */
+    private int strength = 10;
+
+    /** 执行哈希的线程数，默认与 CPU 核数相同。 */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /** 等待哈希的最大排队数量，超出后直接返回 429。 */
+    private int queueCapacity = 64;
+}
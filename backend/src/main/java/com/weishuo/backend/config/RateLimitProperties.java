@@ -0,0 +1,61 @@
+package com.weishuo.backend.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "rate-limit")
+@Getter
+@Setter
+public class RateLimitProperties {
+
+    /** 是否启用限流。 */
+    private boolean enabled = true;
+
+    /** 是否以 X-Forwarded-For 最右侧的地址（由反向代理追加）作为客户端 IP，仅在一层反向代理之后开启。 */
+    private boolean trustForwardedFor = false;
+
+    /** 每个策略的分片数，向上取整为 2 的幂。 */
+    private int shards = 16;
+
+    /** 每个分片最多跟踪的客户端数，超出后新客户端共用一个溢出桶。 */
+    private int maxEntriesPerShard = 65536;
+
+    /** 客户端空闲多久后（令牌已回满）清除其记录。 */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    /** 限流策略，按顺序匹配，第一个匹配的生效。 */
+    private List<Policy> policies = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Policy {
+
+        /** 策略名称，用于指标标签。 */
+        private String name;
+
+        /** 匹配的路径模式，例如 /api/news/**。 */
+        private List<String> patterns = new ArrayList<>();
+
+        /** 按什么区分客户端。 */
+        private KeyType key = KeyType.IP;
+
+        /** 桶容量，即允许的突发请求数。 */
+        private int capacity = 20;
+
+        /** 每秒补充的令牌数。 */
+        private double refillPerSecond = 10;
+    }
+
+    public enum KeyType {
+        /** 按客户端 IP。 */
+        IP,
+        /** 按登录用户，未登录时按 IP。 */
+        USER
+    }
+}
@@ -0,0 +1,22 @@
+package com.weishuo.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "auth.username-filter")
+@Getter
+@Setter
+public class UsernameFilterProperties {
+
+    /** 是否使用布隆过滤器判断用户名是否可用，关闭后每次都查询数据库。 */
+    private boolean enabled = true;
+
+    /** 过滤器的最小容量，实际容量为用户数的两倍与此值中的较大者。 */
+    private int expectedInsertions = 100000;
+
+    /** 目标误判率，决定每个用户名占用的位数和哈希函数个数。 */
+    private double falsePositiveRate = 0.01;
+}
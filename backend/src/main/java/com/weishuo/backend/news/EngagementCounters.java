@@ -0,0 +1,300 @@
+package com.weishuo.backend.news;
+
+import com.weishuo.backend.config.NewsEngagementProperties;
+import com.weishuo.backend.news.dto.FeedStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 新闻互动计数（转发 / 评论 / 点赞）
+ * 增量先累加在分段的 LongAdder 中，后台线程定期批量写回 feed_engagement；读取只访问内存
+ * 热门新闻的大量点赞在内存中合并，每个写回周期对数据库只产生一次更新
+ */
+@Slf4j
+@Component
+public class EngagementCounters {
+
+    private final NewsEngagementProperties properties;
+    private final FeedEngagementStore store;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    private final Counter flushedRows;
+    private final Counter flushFailures;
+    private final Counter evictions;
+    private final Timer flushTimer;
+
+    public EngagementCounters(NewsEngagementProperties properties, FeedEngagementStore store,
+                              MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.store = store;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "news-engagement-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flushedRows = meterRegistry.counter("news.engagement.flushed");
+        this.flushFailures = meterRegistry.counter("news.engagement.flush.failures");
+        this.evictions = meterRegistry.counter("news.engagement.evictions");
+        this.flushTimer = meterRegistry.timer("news.engagement.flush");
+        meterRegistry.gaugeMapSize("news.engagement.entries", List.of(), entries);
+    }
+
+    @PostConstruct
+    void start() {
+        long interval = Math.max(100, properties.getFlushInterval().toMillis());
+        flusher.scheduleWithFixedDelay(this::flushSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 是否已在内存中持有该新闻的计数
+     */
+    public boolean isLoaded(String itemId) {
+        return entries.containsKey(itemId);
+    }
+
+    /**
+     * 从数据库加载尚未在内存中的计数，数据库中没有记录的新闻从 0 开始；会访问数据库，不能在事件循环线程调用
+     */
+    public void preload(Collection<String> itemIds) {
+        List<String> missing = new ArrayList<>();
+        for (String itemId : itemIds) {
+            if (itemId != null && !entries.containsKey(itemId)) {
+                missing.add(itemId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        Map<String, FeedEngagement> persisted = store.load(missing);
+        for (String itemId : missing) {
+            FeedEngagement row = persisted.get(itemId);
+            entries.putIfAbsent(itemId, row != null
+                    ? new Entry(row.getReposts(), row.getComments(), row.getLikes())
+                    : new Entry(0, 0, 0));
+        }
+    }
+
+    /**
+     * 读取新闻当前的互动数，未加载的新闻返回 0
+     */
+    public FeedStats statsFor(String itemId) {
+        Entry entry = entries.get(itemId);
+        if (entry == null) {
+            return FeedStats.builder().build();
+        }
+        entry.touch();
+        return entry.toStats();
+    }
+
+    public FeedStats like(String itemId) {
+        return increment(itemId, Kind.LIKE);
+    }
+
+    public FeedStats repost(String itemId) {
+        return increment(itemId, Kind.REPOST);
+    }
+
+    /**
+     * 累加一次互动；计数器恰好被回收时换到新的计数器重试，保证增量不会丢失
+     * 调用前需先 preload，未加载的新闻返回 null
+     */
+    private FeedStats increment(String itemId, Kind kind) {
+        while (true) {
+            Entry entry = entries.get(itemId);
+            if (entry == null) {
+                return null;
+            }
+            LongAdder pending = entry.pending(kind);
+            pending.increment();
+            if (!entry.retired) {
+                entry.touch();
+                return entry.toStats();
+            }
+            pending.decrement();
+            preload(List.of(itemId));
+        }
+    }
+
+    /**
+     * 丢弃已删除新闻的计数，尚未写回的增量一并丢弃，避免写回时重新插入 feed_engagement
+     * 计数器先标记为回收，并发的累加会按回收处理重新加载
+     */
+    public void remove(Collection<String> itemIds) {
+        for (String itemId : itemIds) {
+            Entry entry = entries.remove(itemId);
+            if (entry != null) {
+                entry.retired = true;
+                evictions.increment();
+            }
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flushTimer.record(this::flush);
+        } catch (RuntimeException ex) {
+            flushFailures.increment();
+            log.warn("互动计数写回失败，下个周期重试: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * 写回所有待持久化的增量并回收空闲计数器
+     */
+    void flush() {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        long idleBefore = System.nanoTime() - properties.getIdleTimeout().toNanos();
+        List<FeedEngagement> batch = new ArrayList<>(batchSize);
+        List<Entry> batchEntries = new ArrayList<>(batchSize);
+        for (Map.Entry<String, Entry> candidate : entries.entrySet()) {
+            Entry entry = candidate.getValue();
+            FeedEngagement delta = entry.drain(candidate.getKey());
+            if (delta != null) {
+                batch.add(delta);
+                batchEntries.add(entry);
+                if (batch.size() >= batchSize) {
+                    write(batch, batchEntries);
+                    batch = new ArrayList<>(batchSize);
+                    batchEntries = new ArrayList<>(batchSize);
+                }
+            } else if (entry.lastAccess.get() < idleBefore && entry.tryRetire()) {
+                entries.remove(candidate.getKey(), entry);
+                evictions.increment();
+            }
+        }
+        write(batch, batchEntries);
+    }
+
+    private void write(List<FeedEngagement> batch, List<Entry> batchEntries) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            store.applyDeltas(batch);
+            flushedRows.increment(batch.size());
+        } catch (RuntimeException ex) {
+            for (int i = 0; i < batch.size(); i++) {
+                batchEntries.get(i).restore(batch.get(i));
+            }
+            throw ex;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        // 停机前写回剩余增量
+        flushSafely();
+    }
+
+    private enum Kind {
+        REPOST, COMMENT, LIKE
+    }
+
+    /**
+     * 单条新闻的计数：已持久化的基数 + 尚未写回的增量
+     * 写回时增量先并入基数再从 pending 扣除，写回失败则退回 pending，读取结果始终为两者之和
+     */
+    private static final class Entry {
+        private final AtomicLong persistedReposts;
+        private final AtomicLong persistedComments;
+        private final AtomicLong persistedLikes;
+        private final LongAdder reposts = new LongAdder();
+        private final LongAdder comments = new LongAdder();
+        private final LongAdder likes = new LongAdder();
+        private final AtomicLong lastAccess = new AtomicLong(System.nanoTime());
+        private volatile boolean retired;
+
+        private Entry(long reposts, long comments, long likes) {
+            this.persistedReposts = new AtomicLong(reposts);
+            this.persistedComments = new AtomicLong(comments);
+            this.persistedLikes = new AtomicLong(likes);
+        }
+
+        private LongAdder pending(Kind kind) {
+            return switch (kind) {
+                case REPOST -> reposts;
+                case COMMENT -> comments;
+                case LIKE -> likes;
+            };
+        }
+
+        private void touch() {
+            lastAccess.lazySet(System.nanoTime());
+        }
+
+        /**
+         * 取出待写回的增量，没有增量时返回 null
+         * 先加到基数再从 pending 扣除，读取期间可能短暂多算，但不会少算
+         */
+        private FeedEngagement drain(String itemId) {
+            long r = reposts.sum();
+            long c = comments.sum();
+            long l = likes.sum();
+            if (r == 0 && c == 0 && l == 0) {
+                return null;
+            }
+            persistedReposts.addAndGet(r);
+            reposts.add(-r);
+            persistedComments.addAndGet(c);
+            comments.add(-c);
+            persistedLikes.addAndGet(l);
+            likes.add(-l);
+            return FeedEngagement.builder().itemId(itemId).reposts(r).comments(c).likes(l).build();
+        }
+
+        private void restore(FeedEngagement delta) {
+            persistedReposts.addAndGet(-delta.getReposts());
+            reposts.add(delta.getReposts());
+            persistedComments.addAndGet(-delta.getComments());
+            comments.add(delta.getComments());
+            persistedLikes.addAndGet(-delta.getLikes());
+            likes.add(delta.getLikes());
+        }
+
+        /**
+         * 标记为回收；标记后仍有新增量说明有并发累加，撤销回收
+         */
+        private boolean tryRetire() {
+            retired = true;
+            if (reposts.sum() != 0 || comments.sum() != 0 || likes.sum() != 0) {
+                retired = false;
+                return false;
+            }
+            return true;
+        }
+
+        private FeedStats toStats() {
+            return FeedStats.builder()
+                    .reposts(saturate(persistedReposts.get() + reposts.sum()))
+                    .comments(saturate(persistedComments.get() + comments.sum()))
+                    .likes(saturate(persistedLikes.get() + likes.sum()))
+                    .build();
+        }
+
+        private static int saturate(long value) {
+            return (int) Math.min(Integer.MAX_VALUE, Math.max(0, value));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.weishuo.backend.news;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import lombok.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Feed 分页游标，由最后一条记录的发布时间和 ID 组成，格式为 publishedAt,id
+ */
+@Value
+public class FeedCursor {
+
+    LocalDateTime publishedAt;
+    Long id;
+
+    public static FeedCursor parse(String value) {
+        int separator = value.lastIndexOf(',');
+        if (separator <= 0 || separator == value.length() - 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "分页游标格式错误");
+        }
+        try {
+            return new FeedCursor(
+                    LocalDateTime.parse(value.substring(0, separator).trim()),
+                    Long.parseLong(value.substring(separator + 1).trim()));
+        } catch (DateTimeParseException | NumberFormatException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "分页游标格式错误");
+        }
+    }
+
+    public String format() {
+        return publishedAt + "," + id;
+    }
+}
@@ -0,0 +1,40 @@
+package com.weishuo.backend.news;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 新闻互动计数表 - 按 Feed 条目 id（即 news_backup.url_hash）记录转发、评论和点赞数
+ * 由 EngagementCounters 在内存中累加后批量写回，请求路径不直接更新此表
+ */
+@Entity
+@Table(name = "feed_engagement")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedEngagement {
+
+    @Id
+    @Column(name = "item_id", length = 64)
+    private String itemId;
+
+    @Column(nullable = false)
+    private long reposts;
+
+    @Column(nullable = false)
+    private long comments;
+
+    @Column(nullable = false)
+    private long likes;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
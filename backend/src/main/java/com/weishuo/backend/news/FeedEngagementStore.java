@@ -0,0 +1,127 @@
+package com.weishuo.backend.news;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * feed_engagement 的批量读写
+ * 写回时先按增量批量 update，不存在的行再批量 insert，每一行每个写回周期只更新一次
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FeedEngagementStore {
+
+    private static final String UPDATE_SQL = "update feed_engagement "
+            + "set reposts = reposts + ?, comments = comments + ?, likes = likes + ?, updated_at = ? where item_id = ?";
+    private static final String INSERT_SQL = "insert into feed_engagement "
+            + "(item_id, reposts, comments, likes, updated_at) values (?, ?, ?, ?, ?)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * 读取已持久化的计数，不存在的 id 不会出现在结果中
+     */
+    public Map<String, FeedEngagement> load(Collection<String> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, FeedEngagement> result = new HashMap<>();
+        jdbcTemplate.query("select item_id, reposts, comments, likes from feed_engagement where item_id in (:ids)",
+                Map.of("ids", itemIds),
+                rs -> {
+                    FeedEngagement engagement = FeedEngagement.builder()
+                            .itemId(rs.getString("item_id"))
+                            .reposts(rs.getLong("reposts"))
+                            .comments(rs.getLong("comments"))
+                            .likes(rs.getLong("likes"))
+                            .build();
+                    result.put(engagement.getItemId(), engagement);
+                });
+        return result;
+    }
+
+    /**
+     * 将一批增量累加到数据库
+     */
+    @Transactional
+    public void applyDeltas(List<FeedEngagement> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] updated = jdbcTemplate.getJdbcTemplate().batchUpdate(UPDATE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                bindUpdate(ps, deltas.get(i), now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return deltas.size();
+            }
+        });
+
+        List<FeedEngagement> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missing.add(deltas.get(i));
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    bindInsert(ps, missing.get(i), now);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return missing.size();
+                }
+            });
+        } catch (DuplicateKeyException ex) {
+            // 其他实例已插入同一行，逐条改为累加
+            log.debug("批量插入互动计数出现重复 id，改为逐条写入: {}", ex.getMessage());
+            for (FeedEngagement delta : missing) {
+                if (jdbcTemplate.getJdbcTemplate().update(UPDATE_SQL, ps -> bindUpdate(ps, delta, now)) == 0) {
+                    jdbcTemplate.getJdbcTemplate().update(INSERT_SQL, ps -> bindInsert(ps, delta, now));
+                }
+            }
+        }
+    }
+
+    private void bindUpdate(PreparedStatement ps, FeedEngagement delta, Timestamp now) throws SQLException {
+        ps.setLong(1, delta.getReposts());
+        ps.setLong(2, delta.getComments());
+        ps.setLong(3, delta.getLikes());
+        ps.setTimestamp(4, now);
+        ps.setString(5, delta.getItemId());
+    }
+
+    private void bindInsert(PreparedStatement ps, FeedEngagement delta, Timestamp now) throws SQLException {
+        ps.setString(1, delta.getItemId());
+        ps.setLong(2, delta.getReposts());
+        ps.setLong(3, delta.getComments());
+        ps.setLong(4, delta.getLikes());
+        ps.setTimestamp(5, now);
+    }
+}
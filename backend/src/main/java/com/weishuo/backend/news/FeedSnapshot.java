@@ -0,0 +1,111 @@
+package com.weishuo.backend.news;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weishuo.backend.news.dto.NewsFeedItem;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 频道新闻的预序列化快照：刷新时生成一次 JSON 与 gzip 字节，接口直接写出，不再逐次序列化
+ * ETag 取自 JSON 内容的哈希，内容不变时 ETag 不变
+ */
+public final class FeedSnapshot {
+
+    private final List<NewsFeedItem> items;
+    private final byte[] json;
+    private final byte[] gzip;
+    private final String etag;
+
+    private FeedSnapshot(List<NewsFeedItem> items, byte[] json, byte[] gzip, String etag) {
+        this.items = items;
+        this.json = json;
+        this.gzip = gzip;
+        this.etag = etag;
+    }
+
+    public static FeedSnapshot of(List<NewsFeedItem> items, ObjectMapper objectMapper) {
+        List<NewsFeedItem> copy = List.copyOf(items);
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(copy);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("新闻快照序列化失败", ex);
+        }
+        return new FeedSnapshot(copy, json, gzip(json), etagOf(json));
+    }
+
+    public List<NewsFeedItem> getItems() {
+        return items;
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    /** 未压缩的 JSON 字节，调用方不得修改 */
+    public byte[] getJson() {
+        return json;
+    }
+
+    /** gzip 压缩后的 JSON 字节，调用方不得修改 */
+    public byte[] getGzip() {
+        return gzip;
+    }
+
+    /**
+     * 弱 ETag：压缩与未压缩两种表示内容相同，共用同一个校验值
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * 判断 If-None-Match 请求头是否与当前快照匹配，支持多个值、弱校验前缀和 "*"
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = "W/" + tag.substring(2).trim();
+            } else {
+                tag = "W/" + tag;
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    private static String etagOf(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "W/\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 不可用", ex);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.weishuo.backend.news;
+
+import com.weishuo.backend.config.NewsRankingProperties;
+import com.weishuo.backend.news.dto.FeedStats;
+import com.weishuo.backend.news.dto.NewsFeedItem;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.stereotype.Component;
+
+/**
+ * 热度排名：分数 = log10(互动量) + 发布时间 / 衰减常数
+ * 时间项只取决于发布时间，新闻之间的相对顺序不会随时间推移而改变，因此只有新入选和互动变化时才需要更新分数；
+ * 每个分类在跳表中维护分数最高的若干条新闻，读取前 K 条只需顺序遍历，不再排序
+ */
+@Component
+public class HotRankingEngine {
+
+    private static final Comparator<Ranked> ORDER = Comparator.comparingDouble((Ranked ranked) -> ranked.score)
+            .reversed()
+            .thenComparing(ranked -> ranked.item.getId());
+
+    private final NewsRankingProperties properties;
+    private final Map<String, Board> boards = new ConcurrentHashMap<>();
+    private final AtomicInteger tracked = new AtomicInteger();
+
+    private final Counter updates;
+    private final Counter evictions;
+
+    public HotRankingEngine(NewsRankingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.updates = meterRegistry.counter("news.ranking.updates");
+        this.evictions = meterRegistry.counter("news.ranking.evictions");
+        meterRegistry.gauge("news.ranking.items", tracked);
+    }
+
+    /**
+     * 放入新抓取或从数据库加载的新闻；已在榜单中的新闻以新数据为准
+     */
+    public void offer(String category, Collection<NewsFeedItem> items) {
+        Board board = boards.computeIfAbsent(category, key -> new Board());
+        synchronized (board) {
+            for (NewsFeedItem item : items) {
+                if (item.getId() != null) {
+                    board.upsert(new Ranked(item, score(item)));
+                }
+            }
+            board.trim(Math.max(1, properties.getCapacity()));
+        }
+    }
+
+    /**
+     * 更新新闻的互动数并重新计算分数，不在任何榜单中的新闻忽略；分类数量很少，逐个检查即可
+     */
+    public void updateStats(String itemId, FeedStats stats) {
+        for (Board board : boards.values()) {
+            if (!board.byId.containsKey(itemId)) {
+                continue;
+            }
+            synchronized (board) {
+                Ranked current = board.byId.get(itemId);
+                if (current != null) {
+                    NewsFeedItem item = current.item.toBuilder().stats(stats).build();
+                    board.upsert(new Ranked(item, score(item)));
+                    updates.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * 从所有榜单中移除新闻，用于保留策略删除数据库记录之后
+     */
+    public void remove(Collection<String> itemIds) {
+        for (Board board : boards.values()) {
+            synchronized (board) {
+                for (String itemId : itemIds) {
+                    Ranked removed = board.byId.remove(itemId);
+                    if (removed != null) {
+                        board.ranking.remove(removed);
+                        tracked.decrementAndGet();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 读取分类的前 limit 条新闻，O(limit)
+     * 遍历与更新并发时同一新闻可能短暂出现两次，按 id 去重
+     */
+    public List<NewsFeedItem> top(String category, int limit) {
+        Board board = boards.get(category);
+        if (board == null) {
+            return List.of();
+        }
+        int size = Math.max(1, Math.min(limit, properties.getMaxLimit()));
+        List<NewsFeedItem> result = new ArrayList<>(size);
+        Set<String> seen = new HashSet<>();
+        for (Ranked ranked : board.ranking) {
+            if (seen.add(ranked.item.getId())) {
+                result.add(ranked.item);
+                if (result.size() >= size) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    public boolean isEmpty(String category) {
+        Board board = boards.get(category);
+        return board == null || board.byId.isEmpty();
+    }
+
+    double score(NewsFeedItem item) {
+        FeedStats stats = item.getStats();
+        long engagement = stats == null ? 0 : stats.getLikes() + 2L * stats.getReposts() + 3L * stats.getComments();
+        LocalDateTime publishedAt = item.getPublishedAt() != null ? item.getPublishedAt() : LocalDateTime.now();
+        double ageTerm = (double) publishedAt.toEpochSecond(ZoneOffset.UTC) / Math.max(1, properties.getDecay().toSeconds());
+        return Math.log10(Math.max(1, engagement)) + ageTerm;
+    }
+
+    /**
+     * 单个分类的榜单，写操作在 Board 上加锁，读操作直接遍历跳表
+     */
+    private final class Board {
+        private final NavigableSet<Ranked> ranking = new ConcurrentSkipListSet<>(ORDER);
+        private final Map<String, Ranked> byId = new ConcurrentHashMap<>();
+
+        private void upsert(Ranked ranked) {
+            Ranked previous = byId.put(ranked.item.getId(), ranked);
+            if (previous == null) {
+                ranking.add(ranked);
+                tracked.incrementAndGet();
+            } else if (ORDER.compare(previous, ranked) == 0) {
+                // 分数不变时跳表视为同一元素，只能先移除再加入
+                ranking.remove(previous);
+                ranking.add(ranked);
+            } else {
+                // 先加入新条目再移除旧条目，并发读取最多看到重复，不会漏掉
+                ranking.add(ranked);
+                ranking.remove(previous);
+            }
+        }
+
+        private void trim(int capacity) {
+            while (byId.size() > capacity) {
+                Ranked lowest = ranking.pollLast();
+                if (lowest == null) {
+                    return;
+                }
+                if (byId.remove(lowest.item.getId(), lowest)) {
+                    tracked.decrementAndGet();
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    private static final class Ranked {
+        private final NewsFeedItem item;
+        private final double score;
+
+        private Ranked(NewsFeedItem item, double score) {
+            this.item = item;
+            this.score = score;
+        }
+    }
+}
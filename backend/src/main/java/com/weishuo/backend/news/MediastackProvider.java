@@ -0,0 +1,124 @@
+package com.weishuo.backend.news;
+
+import com.weishuo.backend.config.NewsProperties;
+import com.weishuo.backend.config.NewsProvidersProperties;
+import com.weishuo.backend.config.NewsResilienceProperties;
+import com.weishuo.backend.news.dto.MediastackResponse;
+import com.weishuo.backend.news.dto.NewsFeedItem;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriBuilder;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Mediastack 提供方
+ * 经过熔断器：熔断期间直接失败；超时随观测到的延迟自适应，重试受预算限制，每次调用占用一次每日配额
+ */
+@Slf4j
+@Component
+public class MediastackProvider implements NewsProvider {
+
+    private final WebClient newsWebClient;
+    private final NewsProperties properties;
+    private final NewsProvidersProperties providersProperties;
+    private final NewsFeedMapper feedMapper;
+    private final UpstreamQuota upstreamQuota;
+    private final UpstreamCircuitBreaker circuitBreaker;
+    private final NewsMetrics newsMetrics;
+
+    public MediastackProvider(@Qualifier("newsWebClient") WebClient newsWebClient, NewsProperties properties,
+                              NewsProvidersProperties providersProperties, NewsResilienceProperties resilienceProperties,
+                              NewsFeedMapper feedMapper, NewsMetrics newsMetrics, MeterRegistry meterRegistry) {
+        this.newsWebClient = newsWebClient;
+        this.properties = properties;
+        this.providersProperties = providersProperties;
+        this.feedMapper = feedMapper;
+        this.upstreamQuota = new UpstreamQuota(name(), properties.getDailyQuota(), meterRegistry);
+        this.circuitBreaker = new UpstreamCircuitBreaker(name(), properties.getTimeout(), resilienceProperties,
+                meterRegistry);
+        this.newsMetrics = newsMetrics;
+    }
+
+    @Override
+    public String name() {
+        return "mediastack";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return providersProperties.getMediastack().isEnabled() && properties.isConfigured();
+    }
+
+    @Override
+    public Duration timeout() {
+        return providersProperties.getMediastack().getTimeout();
+    }
+
+    @Override
+    public Duration hedgeDelay() {
+        return providersProperties.getMediastack().getHedgeDelay();
+    }
+
+    @Override
+    public Mono<List<NewsFeedItem>> fetch(String category) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                log.debug("远程新闻 API 熔断中，跳过远程调用");
+                return Mono.error(new RuntimeException("Circuit breaker open"));
+            }
+            if (!upstreamQuota.tryAcquire()) {
+                circuitBreaker.onCancel();
+                log.warn("远程 API 调用配额已用完");
+                return Mono.error(new RuntimeException("Upstream quota exhausted"));
+            }
+            return request(category);
+        });
+    }
+
+    /**
+     * 发送请求；上游返回 200 但没有 data（例如密钥无效、配额用完时的 error 响应）同样计为失败
+     * 重试需要同时拿到重试预算和一次每日配额，任一不足时不重试，直接返回原始错误
+     */
+    private Mono<List<NewsFeedItem>> request(String category) {
+        return Mono.defer(() -> newsWebClient
+                        .get()
+                        .uri(uriBuilder -> buildNewsUri(uriBuilder, category))
+                        .retrieve()
+                        .bodyToMono(MediastackResponse.class)
+                        .timeout(circuitBreaker.currentTimeout())
+                        .elapsed())
+                .retryWhen(Retry.max(1).filter(ex -> UpstreamCircuitBreaker.isRetryable(ex)
+                        && circuitBreaker.tryAcquireRetry(upstreamQuota::tryAcquire)))
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Empty response from API")))
+                .flatMap(timed -> timed.getT2().getData() != null
+                        ? Mono.just(timed)
+                        : Mono.error(new RuntimeException("API returned no data")))
+                .doOnNext(timed -> circuitBreaker.onSuccess(TimeUnit.MILLISECONDS.toNanos(timed.getT1())))
+                .doOnError(ex -> circuitBreaker.onFailure())
+                .doOnCancel(circuitBreaker::onCancel)
+                .map(timed -> newsMetrics.record(NewsMetrics.STAGE_MAP, category, NewsMetrics.SOURCE_REMOTE,
+                        () -> timed.getT2().getData().stream()
+                                .map(article -> feedMapper.mapToFeedItem(article, category))
+                                .collect(Collectors.toList())));
+    }
+
+    private URI buildNewsUri(UriBuilder uriBuilder, String category) {
+        return uriBuilder
+                .path("/news")
+                .queryParam("access_key", properties.getApiKey())
+                .queryParam("countries", properties.normalizedCountry())
+                .queryParam("languages", properties.normalizedLanguage())
+                .queryParam("limit", properties.getPageSize())
+                .queryParam("categories", category)
+                .build();
+    }
+}
@@ -0,0 +1,190 @@
+package com.weishuo.backend.news;
+
+import com.weishuo.backend.config.NewsDedupProperties;
+import com.weishuo.backend.news.dto.NewsFeedItem;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 入库前的近似重复检测：对去掉标点的标题和摘要计算 64 位 SimHash，在最近新闻的指纹中查找汉明距离足够小的记录
+ * 指纹切分为 (最大距离 + 1) 段建立分段索引，距离不超过阈值时至少有一段完全相同，只需比对同段的候选；
+ * 同一条新闻（id 相同）重复抓取不算重复，其他来源转载的同一稿件保留最先出现的一条
+ */
+@Slf4j
+@Component
+public class NearDuplicateDetector {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final NewsDedupProperties properties;
+    private final int bands;
+    private final int bandBits;
+    private final Map<Long, List<Fingerprint>> buckets = new HashMap<>();
+    private final Map<String, Fingerprint> byId = new HashMap<>();
+    private final Deque<Fingerprint> recent = new ArrayDeque<>();
+
+    private final Counter checked;
+    private final Counter dropped;
+
+    public NearDuplicateDetector(NewsDedupProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.bands = Math.max(2, Math.min(16, properties.getMaxDistance() + 1));
+        this.bandBits = 64 / bands;
+        this.checked = meterRegistry.counter("news.dedup.checked");
+        this.dropped = meterRegistry.counter("news.dedup.dropped");
+        meterRegistry.gauge("news.dedup.fingerprints", recent, Deque::size);
+    }
+
+    /**
+     * 过滤掉与最近新闻近似重复的条目，保留的新闻会加入指纹索引
+     */
+    public List<NewsFeedItem> filter(List<NewsFeedItem> items) {
+        if (!properties.isEnabled() || items.isEmpty()) {
+            return items;
+        }
+        List<NewsFeedItem> kept = new ArrayList<>(items.size());
+        synchronized (this) {
+            for (NewsFeedItem item : items) {
+                checked.increment();
+                if (item.getId() == null || byId.containsKey(item.getId())) {
+                    kept.add(item);
+                    continue;
+                }
+                List<String> tokens = NewsTokenizer.tokenize(stripPunctuation(item.getContent()));
+                if (tokens.size() < properties.getMinTokens()) {
+                    kept.add(item);
+                    continue;
+                }
+                long hash = simHash(tokens);
+                Fingerprint duplicateOf = findNear(hash);
+                if (duplicateOf != null) {
+                    dropped.increment();
+                    log.debug("新闻 {} 与 {} 近似重复，已过滤", item.getId(), duplicateOf.itemId);
+                    continue;
+                }
+                remember(new Fingerprint(item.getId(), hash));
+                kept.add(item);
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * 64 位 SimHash：每个词项哈希的每一位按 1 加、0 减累计，最终为正的位置 1
+     */
+    static long simHash(List<String> tokens) {
+        int[] weights = new int[64];
+        for (String token : tokens) {
+            long h = hash64(token);
+            for (int bit = 0; bit < 64; bit++) {
+                weights[bit] += ((h >>> bit) & 1L) != 0 ? 1 : -1;
+            }
+        }
+        long fingerprint = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+
+    private Fingerprint findNear(long hash) {
+        int maxDistance = properties.getMaxDistance();
+        for (int band = 0; band < bands; band++) {
+            List<Fingerprint> candidates = buckets.get(bandKey(hash, band));
+            if (candidates == null) {
+                continue;
+            }
+            for (Fingerprint candidate : candidates) {
+                if (Long.bitCount(candidate.hash ^ hash) <= maxDistance) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void remember(Fingerprint fingerprint) {
+        recent.addLast(fingerprint);
+        byId.put(fingerprint.itemId, fingerprint);
+        for (int band = 0; band < bands; band++) {
+            buckets.computeIfAbsent(bandKey(fingerprint.hash, band), key -> new ArrayList<>(2)).add(fingerprint);
+        }
+        while (recent.size() > Math.max(1, properties.getCapacity())) {
+            forget(recent.removeFirst());
+        }
+    }
+
+    private void forget(Fingerprint fingerprint) {
+        byId.remove(fingerprint.itemId, fingerprint);
+        for (int band = 0; band < bands; band++) {
+            long key = bandKey(fingerprint.hash, band);
+            List<Fingerprint> bucket = buckets.get(key);
+            if (bucket != null) {
+                bucket.remove(fingerprint);
+                if (bucket.isEmpty()) {
+                    buckets.remove(key);
+                }
+            }
+        }
+    }
+
+    private long bandKey(long hash, int band) {
+        long value = (hash >>> (band * bandBits)) & ((1L << bandBits) - 1);
+        return ((long) band << bandBits) | value;
+    }
+
+    /**
+     * 转载稿常见的差异是标点，去掉标点后相邻文字才能组成相同的二元组
+     */
+    private static String stripPunctuation(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c) || Character.isSurrogate(c)) {
+                builder.append(c);
+            } else if (Character.isWhitespace(c)) {
+                builder.append(' ');
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * FNV-1a 64 位哈希加一轮混合，String.hashCode 只有 32 位，不足以生成 64 位指纹
+     */
+    private static long hash64(String token) {
+        long h = FNV_OFFSET;
+        for (int i = 0; i < token.length(); i++) {
+            h ^= token.charAt(i);
+            h *= FNV_PRIME;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Fingerprint {
+        private final String itemId;
+        private final long hash;
+
+        private Fingerprint(String itemId, long hash) {
+            this.itemId = itemId;
+            this.hash = hash;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.weishuo.backend.news;
+
+import com.weishuo.backend.config.NewsProvidersProperties;
+import com.weishuo.backend.news.dto.NewsFeedItem;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * 并行调用所有可用的新闻提供方并合并结果
+ * 每个提供方独立超时、可选对冲；第一个提供方返回后最多再等待合并窗口，慢的提供方不会拖慢整体；
+ * 合并时按 URL 去重（先返回的提供方优先），再按发布时间倒序排列
+ */
+@Slf4j
+@Component
+public class NewsAggregator {
+
+    private static final Comparator<NewsFeedItem> NEWEST_FIRST = Comparator.comparing(NewsFeedItem::getPublishedAt,
+            Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()));
+
+    private final List<NewsProvider> providers;
+    private final NewsProvidersProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public NewsAggregator(List<NewsProvider> providers, NewsProvidersProperties properties,
+                          MeterRegistry meterRegistry) {
+        this.providers = providers;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean hasAvailableProvider() {
+        return providers.stream().anyMatch(NewsProvider::isAvailable);
+    }
+
+    /**
+     * 抓取分类新闻；所有提供方都失败或都没有返回新闻时发出错误，由调用方降级
+     */
+    public Mono<List<NewsFeedItem>> fetch(String category) {
+        return Mono.defer(() -> {
+            List<NewsProvider> available = providers.stream().filter(NewsProvider::isAvailable).toList();
+            if (available.isEmpty()) {
+                log.warn("没有可用的新闻提供方");
+                return Mono.error(new RuntimeException("No news provider configured"));
+            }
+
+            Sinks.One<Boolean> firstArrived = Sinks.one();
+            return Flux.fromIterable(available)
+                    .flatMap(provider -> fetchFrom(provider, category))
+                    .doOnNext(items -> firstArrived.tryEmitValue(Boolean.TRUE))
+                    .takeUntilOther(firstArrived.asMono().then(Mono.delay(properties.getMergeWindow())))
+                    .collectList()
+                    .flatMap(results -> {
+                        List<NewsFeedItem> merged = merge(results);
+                        return merged.isEmpty()
+                                ? Mono.error(new RuntimeException("No provider returned news"))
+                                : Mono.just(merged);
+                    });
+        });
+    }
+
+    private Mono<List<NewsFeedItem>> fetchFrom(NewsProvider provider, String category) {
+        Mono<List<NewsFeedItem>> call = provider.fetch(category);
+        Duration hedgeDelay = provider.hedgeDelay();
+        if (hedgeDelay != null && !hedgeDelay.isNegative() && !hedgeDelay.isZero()
+                && hedgeDelay.compareTo(provider.timeout()) < 0) {
+            Mono<List<NewsFeedItem>> hedge = Mono.delay(hedgeDelay)
+                    .doOnNext(tick -> meterRegistry.counter("news.provider.hedges", "provider", provider.name()).increment())
+                    .then(provider.fetch(category));
+            call = Mono.firstWithValue(call, hedge);
+        }
+        long start = System.nanoTime();
+        return call
+                .timeout(provider.timeout())
+                .filter(items -> !items.isEmpty())
+                .doOnNext(items -> record(provider, "success", start))
+                .onErrorResume(ex -> {
+                    record(provider, "failure", start);
+                    log.warn("新闻提供方 {} 抓取分类 {} 失败: {}", provider.name(), category, ex.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private void record(NewsProvider provider, String outcome, long startNanos) {
+        meterRegistry.timer("news.provider.fetch", "provider", provider.name(), "outcome", outcome)
+                .record(Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+
+    private static List<NewsFeedItem> merge(List<List<NewsFeedItem>> results) {
+        Map<String, NewsFeedItem> byUrl = new LinkedHashMap<>();
+        for (List<NewsFeedItem> items : results) {
+            for (NewsFeedItem item : items) {
+                byUrl.putIfAbsent(item.getLink() != null ? item.getLink() : item.getId(), item);
+            }
+        }
+        List<NewsFeedItem> merged = new ArrayList<>(byUrl.values());
+        merged.sort(NEWEST_FIRST);
+        return merged;
+    }
+}
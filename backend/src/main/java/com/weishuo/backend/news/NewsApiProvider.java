@@ -0,0 +1,116 @@
+package com.weishuo.backend.news;
+
+import com.weishuo.backend.config.NewsProvidersProperties;
+import com.weishuo.backend.config.NewsResilienceProperties;
+import com.weishuo.backend.news.dto.NewsApiResponse;
+import com.weishuo.backend.news.dto.NewsFeedItem;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * NewsAPI（newsapi.org）提供方，使用 top-headlines 接口按分类抓取
+ * 与 Mediastack 一样经过自己的熔断器和每日配额，上游持续失败时不会在每次刷新时都被调用
+ */
+@Slf4j
+@Component
+public class NewsApiProvider implements NewsProvider {
+
+    private final WebClient newsApiWebClient;
+    private final NewsProvidersProperties providersProperties;
+    private final NewsFeedMapper feedMapper;
+    private final NewsMetrics newsMetrics;
+    private final UpstreamQuota upstreamQuota;
+    private final UpstreamCircuitBreaker circuitBreaker;
+
+    public NewsApiProvider(@Qualifier("newsApiWebClient") WebClient newsApiWebClient,
+                           NewsProvidersProperties providersProperties, NewsResilienceProperties resilienceProperties,
+                           NewsFeedMapper feedMapper, NewsMetrics newsMetrics, MeterRegistry meterRegistry) {
+        this.newsApiWebClient = newsApiWebClient;
+        this.providersProperties = providersProperties;
+        this.feedMapper = feedMapper;
+        this.newsMetrics = newsMetrics;
+        NewsProvidersProperties.NewsApi config = providersProperties.getNewsapi();
+        this.upstreamQuota = new UpstreamQuota(name(), config.getDailyQuota(), meterRegistry);
+        this.circuitBreaker = new UpstreamCircuitBreaker(name(), config.getTimeout(), resilienceProperties,
+                meterRegistry);
+    }
+
+    @Override
+    public String name() {
+        return "newsapi";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        NewsProvidersProperties.NewsApi config = providersProperties.getNewsapi();
+        return config.isEnabled() && config.isConfigured();
+    }
+
+    @Override
+    public Duration timeout() {
+        return providersProperties.getNewsapi().getTimeout();
+    }
+
+    @Override
+    public Duration hedgeDelay() {
+        return providersProperties.getNewsapi().getHedgeDelay();
+    }
+
+    @Override
+    public Mono<List<NewsFeedItem>> fetch(String category) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                log.debug("NewsAPI 熔断中，跳过远程调用");
+                return Mono.error(new RuntimeException("Circuit breaker open"));
+            }
+            if (!upstreamQuota.tryAcquire()) {
+                circuitBreaker.onCancel();
+                log.warn("NewsAPI 调用配额已用完");
+                return Mono.error(new RuntimeException("Upstream quota exhausted"));
+            }
+            return request(category);
+        });
+    }
+
+    /**
+     * 发送请求；返回 200 但没有 articles（status 为 error 的响应）同样计为失败
+     */
+    private Mono<List<NewsFeedItem>> request(String category) {
+        NewsProvidersProperties.NewsApi config = providersProperties.getNewsapi();
+        return Mono.defer(() -> newsApiWebClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path("/top-headlines")
+                                .queryParam("country", config.getCountry().toLowerCase(Locale.ROOT))
+                                .queryParam("category", category)
+                                .queryParam("pageSize", config.getPageSize())
+                                .build())
+                        .header("X-Api-Key", config.getApiKey())
+                        .retrieve()
+                        .bodyToMono(NewsApiResponse.class)
+                        .timeout(circuitBreaker.currentTimeout())
+                        .elapsed())
+                .retryWhen(Retry.max(1).filter(ex -> UpstreamCircuitBreaker.isRetryable(ex)
+                        && circuitBreaker.tryAcquireRetry(upstreamQuota::tryAcquire)))
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Empty response from NewsAPI")))
+                .flatMap(timed -> timed.getT2().getArticles() != null
+                        ? Mono.just(timed)
+                        : Mono.error(new RuntimeException("NewsAPI returned no articles")))
+                .doOnNext(timed -> circuitBreaker.onSuccess(TimeUnit.MILLISECONDS.toNanos(timed.getT1())))
+                .doOnError(ex -> circuitBreaker.onFailure())
+                .doOnCancel(circuitBreaker::onCancel)
+                .map(timed -> newsMetrics.record(NewsMetrics.STAGE_MAP, category, NewsMetrics.SOURCE_REMOTE,
+                        () -> timed.getT2().getArticles().stream()
+                                .map(article -> feedMapper.mapNewsApiArticle(article, category))
+                                .collect(Collectors.toList())));
+    }
+}
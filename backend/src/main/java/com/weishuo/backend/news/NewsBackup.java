@@ -5,8 +5,13 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -18,7 +23,10 @@ import org.hibernate.annotations.CreationTimestamp;
  * 当远程 API 不可用时，从此表读取最新的缓存新闻
  */
 @Entity
-@Table(name = "news_backup")
+@Table(name = "news_backup", indexes = {
+        @Index(name = "uk_news_backup_url_hash", columnList = "url_hash", unique = true),
+        @Index(name = "idx_news_backup_feed", columnList = "category, published_at, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -44,6 +52,13 @@ public class NewsBackup {
     @Column(length = 1000)
     private String url;
 
+    /**
+     * URL 的 SHA-256 摘要，url 字段过长无法直接建索引，去重通过此列的唯一索引完成
+     * 没有 URL 的新闻为内容摘要（见 hashContent）；同时作为 Feed 条目 id 和 feed_engagement 的主键
+     */
+    @Column(name = "url_hash", length = 64)
+    private String urlHash;
+
     @Column(length = 50)
     private String category;
 
@@ -53,4 +68,24 @@ public class NewsBackup {
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
+
+    public static String hashUrl(String url) {
+        return sha256(url);
+    }
+
+    /**
+     * 没有 URL 的新闻按标题、描述、来源和原始发布时间生成摘要；加前缀避免与 URL 摘要重合
+     */
+    public static String hashContent(String title, String description, String source, String publishedAt) {
+        return sha256("content:" + title + '\n' + description + '\n' + source + '\n' + publishedAt);
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
 }
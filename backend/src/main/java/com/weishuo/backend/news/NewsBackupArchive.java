@@ -0,0 +1,75 @@
+package com.weishuo.backend.news;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 新闻归档表 - 保存超出保留期、从 news_backup 移出的新闻
+ * 主键包含归档月份，MySQL 下可按 archive_month 做 RANGE 分区（见 db/mysql/news_backup_archive.sql），整月过期时直接删除分区
+ */
+@Entity
+@Table(name = "news_backup_archive", indexes = {
+        @Index(name = "idx_news_backup_archive_category", columnList = "category, published_at")
+})
+@IdClass(NewsBackupArchive.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NewsBackupArchive {
+
+    /** 原 news_backup 记录的 ID */
+    @Id
+    private Long id;
+
+    /** 发布月份，格式 yyyyMM */
+    @Id
+    @Column(name = "archive_month")
+    private Integer archiveMonth;
+
+    @Column(nullable = false, length = 500)
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String summary;
+
+    @Column(columnDefinition = "TEXT")
+    private String content;
+
+    @Column(length = 100)
+    private String source;
+
+    @Column(length = 1000)
+    private String url;
+
+    @Column(name = "url_hash", length = 64)
+    private String urlHash;
+
+    @Column(length = 50)
+    private String category;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long id;
+        private Integer archiveMonth;
+    }
+}
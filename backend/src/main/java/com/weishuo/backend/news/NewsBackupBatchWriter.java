@@ -0,0 +1,190 @@
+package com.weishuo.backend.news;
+
+import jakarta.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+/**
+ * 新闻备份的批量写入
+ * 一次 IN 查询完成整批去重，新记录用一次 JDBC 批量插入写入；
+ * 主键使用 IDENTITY 策略时 Hibernate 无法批量插入，因此这里直接使用 JdbcTemplate
+ */
+@Slf4j
+@Component
+public class NewsBackupBatchWriter {
+
+    private static final String INSERT_SQL = "insert into news_backup "
+            + "(title, summary, content, source, url, url_hash, category, published_at, created_at) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int BACKFILL_BATCH_SIZE = 500;
+    private static final long BACKFILL_RETRY_SECONDS = 30;
+
+    private final NewsBackupRepository newsBackupRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ScheduledExecutorService backfiller;
+
+    /** 补齐进度：已处理的最大 id，失败重试时从这里继续 */
+    private long backfilledUntil;
+    private int backfilled;
+
+    public NewsBackupBatchWriter(NewsBackupRepository newsBackupRepository, JdbcTemplate jdbcTemplate) {
+        this.newsBackupRepository = newsBackupRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.backfiller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "news-backfill");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 写入不存在的新闻，返回实际插入的条数
+     */
+    @Transactional
+    public int insertNew(List<NewsBackup> backups) {
+        Map<String, NewsBackup> candidates = new LinkedHashMap<>();
+        for (NewsBackup backup : backups) {
+            if (backup.getUrlHash() == null) {
+                // 既没有摘要也没有 URL 的新闻无法去重，跳过
+                if (!StringUtils.hasText(backup.getUrl())) {
+                    continue;
+                }
+                backup.setUrlHash(NewsBackup.hashUrl(backup.getUrl()));
+            }
+            candidates.putIfAbsent(backup.getUrlHash(), backup);
+        }
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        newsBackupRepository.findExistingUrlHashes(candidates.keySet()).forEach(candidates::remove);
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        List<NewsBackup> rows = new ArrayList<>(candidates.values());
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    bind(ps, rows.get(i));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return rows.size();
+                }
+            });
+            return rows.size();
+        } catch (DuplicateKeyException ex) {
+            // 并发写入同一条新闻时唯一索引冲突，逐条重试并跳过重复项
+            log.debug("批量插入出现重复 URL，改为逐条插入: {}", ex.getMessage());
+            return insertOneByOne(rows);
+        }
+    }
+
+    private int insertOneByOne(List<NewsBackup> rows) {
+        int inserted = 0;
+        for (NewsBackup row : rows) {
+            try {
+                inserted += jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, row));
+            } catch (DuplicateKeyException ignored) {
+                // 已被其他写入方插入
+            }
+        }
+        return inserted;
+    }
+
+    private void bind(PreparedStatement ps, NewsBackup backup) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        ps.setString(1, backup.getTitle());
+        ps.setString(2, backup.getSummary());
+        ps.setString(3, backup.getContent());
+        ps.setString(4, backup.getSource());
+        ps.setString(5, backup.getUrl());
+        ps.setString(6, backup.getUrlHash());
+        ps.setString(7, backup.getCategory());
+        ps.setTimestamp(8, backup.getPublishedAt() != null ? Timestamp.valueOf(backup.getPublishedAt()) : null);
+        ps.setTimestamp(9, Timestamp.valueOf(backup.getCreatedAt() != null ? backup.getCreatedAt() : now));
+    }
+
+    /**
+     * 为升级前写入的历史记录补齐 URL 摘要，重复的历史记录保持为空
+     * 在后台线程分页执行，不阻塞启动；失败后从上次的进度重试，重启后已补齐的记录不会再被查出
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBackfill() {
+        backfiller.execute(this::backfillSafely);
+    }
+
+    private void backfillSafely() {
+        try {
+            backfillUrlHashes();
+            if (backfilled > 0) {
+                log.info("已为 {} 条历史新闻补齐 URL 摘要", backfilled);
+            }
+        } catch (Exception ex) {
+            log.warn("补齐历史新闻 URL 摘要失败，{} 秒后从 id {} 继续: {}",
+                    BACKFILL_RETRY_SECONDS, backfilledUntil, ex.getMessage());
+            backfiller.schedule(this::backfillSafely, BACKFILL_RETRY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    private void backfillUrlHashes() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Map<String, Object>> page = jdbcTemplate.queryForList(
+                    "select id, url from news_backup where url_hash is null and url is not null and id > ? "
+                            + "order by id limit ?",
+                    backfilledUntil, BACKFILL_BATCH_SIZE);
+            if (page.isEmpty()) {
+                break;
+            }
+            List<Object[]> updates = new ArrayList<>();
+            Set<String> seen = new HashSet<>();
+            long lastId = backfilledUntil;
+            for (Map<String, Object> row : page) {
+                lastId = ((Number) row.get("id")).longValue();
+                String hash = NewsBackup.hashUrl((String) row.get("url"));
+                if (seen.add(hash)) {
+                    updates.add(new Object[] {hash, lastId});
+                }
+            }
+            Set<String> existing = new HashSet<>(newsBackupRepository.findExistingUrlHashes(seen));
+            updates.removeIf(update -> existing.contains((String) update[0]));
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate("update news_backup set url_hash = ? where id = ?", updates);
+                backfilled += updates.size();
+            }
+            backfilledUntil = lastId;
+            if (page.size() < BACKFILL_BATCH_SIZE) {
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        backfiller.shutdownNow();
+    }
+}
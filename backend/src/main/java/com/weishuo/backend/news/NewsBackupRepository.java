@@ -1,7 +1,12 @@
 package com.weishuo.backend.news;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -11,12 +16,42 @@ import org.springframework.stereotype.Repository;
 public interface NewsBackupRepository extends JpaRepository<NewsBackup, Long> {
 
     /**
-     * 查询最新的 20 条新闻（按发布时间降序）
+     * 查询分类的第一页新闻（按发布时间、ID 降序，走 category, published_at, id 联合索引）
      */
-    List<NewsBackup> findTop20ByOrderByPublishedAtDesc();
+    @Query("select n.id as id, n.title as title, n.summary as summary, n.source as source, "
+            + "n.content as content, n.url as url, n.urlHash as urlHash, n.publishedAt as publishedAt from NewsBackup n "
+            + "where n.category = :category "
+            + "order by n.publishedAt desc, n.id desc")
+    List<NewsBackupSummary> findFeedPage(@Param("category") String category, Pageable pageable);
 
     /**
-     * 根据 URL 查找新闻（用于去重）
+     * 查询游标之后的一页新闻（keyset 分页，翻页深度不影响查询代价）
      */
-    NewsBackup findByUrl(String url);
+    @Query("select n.id as id, n.title as title, n.summary as summary, n.source as source, "
+            + "n.content as content, n.url as url, n.urlHash as urlHash, n.publishedAt as publishedAt from NewsBackup n "
+            + "where n.category = :category "
+            + "and (n.publishedAt < :publishedAt or (n.publishedAt = :publishedAt and n.id < :id)) "
+            + "order by n.publishedAt desc, n.id desc")
+    List<NewsBackupSummary> findFeedPageBefore(@Param("category") String category,
+                                               @Param("publishedAt") LocalDateTime publishedAt,
+                                               @Param("id") Long id,
+                                               Pageable pageable);
+
+    /**
+     * 按 ID 批量读取新闻摘要（检索结果回表）
+     */
+    @Query("select n.id as id, n.title as title, n.summary as summary, n.source as source, "
+            + "n.content as content, n.url as url, n.urlHash as urlHash, n.publishedAt as publishedAt from NewsBackup n where n.id in :ids")
+    List<NewsBackupSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 批量查询已存在的 URL 摘要（用于去重，一次查询覆盖整批新闻）
+     */
+    @Query("select n.urlHash from NewsBackup n where n.urlHash in :hashes")
+    List<String> findExistingUrlHashes(@Param("hashes") Collection<String> hashes);
+
+    /**
+     * 按 URL 摘要判断新闻是否存在（走 url_hash 唯一索引）
+     */
+    boolean existsByUrlHash(String urlHash);
 }
@@ -0,0 +1,27 @@
+package com.weishuo.backend.news;
+
+import java.time.LocalDateTime;
+
+/**
+ * 新闻备份的列表投影，只包含生成 Feed 卡片需要的列
+ * content 只保存卡片正文（标题加摘要），不是全文，按列表读取的代价可控
+ */
+public interface NewsBackupSummary {
+
+    Long getId();
+
+    String getTitle();
+
+    String getSummary();
+
+    String getSource();
+
+    /** 卡片正文；升级前写入的记录 title 存的是来源名称，正文只在这一列 */
+    String getContent();
+
+    String getUrl();
+
+    String getUrlHash();
+
+    LocalDateTime getPublishedAt();
+}
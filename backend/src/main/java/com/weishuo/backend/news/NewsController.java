@@ -1,12 +1,25 @@
 package com.weishuo.backend.news;
 
+import com.weishuo.backend.news.dto.FeedPage;
+import com.weishuo.backend.news.dto.FeedStats;
 import com.weishuo.backend.news.dto.NewsFeedItem;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/api/news")
@@ -14,9 +27,88 @@ import org.springframework.web.bind.annotation.RestController;
 public class NewsController {
 
     private final NewsService newsService;
+    private final NewsStreamHub streamHub;
 
+    /**
+     * 直接写出频道快照的预序列化字节；客户端携带匹配的 If-None-Match 时返回 304
+     */
     @GetMapping("/latest")
-    public List<NewsFeedItem> latest(@RequestParam(defaultValue = "hot") String channel) {
-        return newsService.fetchLatest(channel);
+    public Mono<ResponseEntity<byte[]>> latest(@RequestParam(defaultValue = "hot") String channel,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                               @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return newsService.fetchLatest(channel).map(snapshot -> {
+            if (snapshot.matches(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(snapshot.getEtag())
+                        .cacheControl(CacheControl.noCache())
+                        .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                        .build();
+            }
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .eTag(snapshot.getEtag())
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING);
+            if (acceptsGzip(acceptEncoding)) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.getGzip());
+            }
+            return response.body(snapshot.getJson());
+        });
+    }
+
+    /**
+     * 以 SSE 推送频道中新出现的新闻，事件名为 news，事件 id 为新闻 id；空闲时定期发送心跳注释
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(defaultValue = "hot") String channel) {
+        if (!NewsService.isSupportedChannel(channel)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "不支持的频道: " + channel);
+        }
+        return streamHub.open(channel);
+    }
+
+    /**
+     * 频道热度排行，按时间衰减后的互动量排序
+     */
+    @GetMapping("/hot")
+    public Mono<List<NewsFeedItem>> hot(@RequestParam(defaultValue = "hot") String channel,
+                                        @RequestParam(defaultValue = "20") int limit) {
+        return newsService.fetchHot(channel, limit);
+    }
+
+    @GetMapping("/search")
+    public Mono<List<NewsFeedItem>> search(@RequestParam("q") String query,
+                                           @RequestParam(defaultValue = "20") int limit) {
+        return newsService.search(query, limit);
+    }
+
+    @PostMapping("/{id}/like")
+    public Mono<FeedStats> like(@PathVariable String id) {
+        return newsService.like(id);
+    }
+
+    @PostMapping("/{id}/repost")
+    public Mono<FeedStats> repost(@PathVariable String id) {
+        return newsService.repost(id);
+    }
+
+    @GetMapping("/feed")
+    public Mono<FeedPage> feed(@RequestParam(defaultValue = "hot") String channel,
+                               @RequestParam(required = false) String before,
+                               @RequestParam(defaultValue = "20") int limit) {
+        return newsService.fetchFeedPage(channel, before, limit);
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
 }
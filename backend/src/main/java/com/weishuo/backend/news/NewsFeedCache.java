@@ -0,0 +1,148 @@
+package com.weishuo.backend.news;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weishuo.backend.config.NewsCacheProperties;
+import com.weishuo.backend.news.dto.NewsFeedItem;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * 按频道缓存最近一次成功获取的新闻列表（stale-while-revalidate）
+ * 新鲜期内直接返回；过期后先返回旧数据，同时在后台刷新；超过最大过期时长才由调用方加载
+ * 写入时即生成预序列化快照，读取路径不再经过 Jackson；内容变化时通知 SSE 订阅者
+ */
+@Slf4j
+@Component
+public class NewsFeedCache {
+
+    private final NewsCacheProperties properties;
+    private final ObjectMapper objectMapper;
+    private final NewsStreamHub streamHub;
+    private final NewsMetrics newsMetrics;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Counter refreshSuccess;
+    private final Counter refreshFailure;
+    private final Counter evictions;
+
+    public NewsFeedCache(NewsCacheProperties properties, ObjectMapper objectMapper, NewsStreamHub streamHub,
+                         NewsMetrics newsMetrics, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.streamHub = streamHub;
+        this.newsMetrics = newsMetrics;
+        this.hits = meterRegistry.counter("news.feed.cache.requests", "result", "hit");
+        this.staleHits = meterRegistry.counter("news.feed.cache.requests", "result", "stale");
+        this.misses = meterRegistry.counter("news.feed.cache.requests", "result", "miss");
+        this.refreshSuccess = meterRegistry.counter("news.feed.cache.refreshes", "outcome", "success");
+        this.refreshFailure = meterRegistry.counter("news.feed.cache.refreshes", "outcome", "failure");
+        this.evictions = meterRegistry.counter("news.feed.cache.evictions");
+        meterRegistry.gaugeMapSize("news.feed.cache.size", List.of(), entries);
+    }
+
+    /**
+     * 读取频道新闻快照；未命中时由调用方订阅 loader，过期时在后台订阅 loader 刷新
+     */
+    public Mono<FeedSnapshot> get(String channel, Function<String, Mono<List<NewsFeedItem>>> loader) {
+        return Mono.defer(() -> {
+            long now = System.nanoTime();
+            Entry entry = entries.get(channel);
+            if (entry != null) {
+                long age = now - entry.loadedAt;
+                if (age <= properties.getTtl().toNanos()) {
+                    hits.increment();
+                    entry.lastAccess = now;
+                    return Mono.just(entry.snapshot);
+                }
+                if (age <= properties.getMaxStale().toNanos()) {
+                    staleHits.increment();
+                    entry.lastAccess = now;
+                    scheduleRefresh(channel, entry, loader);
+                    return Mono.just(entry.snapshot);
+                }
+            }
+
+            misses.increment();
+            return loader.apply(channel).map(items -> put(channel, items));
+        });
+    }
+
+    /**
+     * 写入频道的最新新闻并返回其快照，空列表不会覆盖已有数据
+     * 内容与当前快照一致时沿用旧快照，只更新加载时间
+     */
+    public FeedSnapshot put(String channel, List<NewsFeedItem> items) {
+        if (items == null || items.isEmpty()) {
+            return FeedSnapshot.of(List.of(), objectMapper);
+        }
+        long now = System.nanoTime();
+        FeedSnapshot snapshot = newsMetrics.record(NewsMetrics.STAGE_SERIALIZE, NewsService.categoryOf(channel),
+                NewsMetrics.SOURCE_REMOTE, () -> FeedSnapshot.of(items, objectMapper));
+        Entry previous = entries.get(channel);
+        if (previous != null && previous.snapshot.getEtag().equals(snapshot.getEtag())) {
+            snapshot = previous.snapshot;
+        }
+        entries.put(channel, new Entry(snapshot, now));
+        evictIfNecessary();
+        if (previous == null || previous.snapshot != snapshot) {
+            streamHub.publish(channel, snapshot.getItems());
+        }
+        return snapshot;
+    }
+
+    private void scheduleRefresh(String channel, Entry entry, Function<String, Mono<List<NewsFeedItem>>> loader) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        loader.apply(channel)
+                .doFinally(signal -> entry.refreshing.set(false))
+                .subscribe(items -> {
+                    put(channel, items);
+                    refreshSuccess.increment();
+                }, ex -> {
+                    refreshFailure.increment();
+                    log.warn("后台刷新频道 {} 失败，继续使用旧数据: {}", channel, ex.getMessage());
+                });
+    }
+
+    private void evictIfNecessary() {
+        while (entries.size() > Math.max(1, properties.getMaxEntries())) {
+            String eldest = null;
+            long eldestAccess = Long.MAX_VALUE;
+            for (Map.Entry<String, Entry> candidate : entries.entrySet()) {
+                if (candidate.getValue().lastAccess < eldestAccess) {
+                    eldestAccess = candidate.getValue().lastAccess;
+                    eldest = candidate.getKey();
+                }
+            }
+            if (eldest == null || entries.remove(eldest) == null) {
+                return;
+            }
+            evictions.increment();
+        }
+    }
+
+    private static final class Entry {
+        private final FeedSnapshot snapshot;
+        private final long loadedAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile long lastAccess;
+
+        private Entry(FeedSnapshot snapshot, long loadedAt) {
+            this.snapshot = snapshot;
+            this.loadedAt = loadedAt;
+            this.lastAccess = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.weishuo.backend.news;
+
+import com.weishuo.backend.news.dto.FeedAuthor;
+import com.weishuo.backend.news.dto.FeedMedia;
+import com.weishuo.backend.news.dto.MediastackResponse;
+import com.weishuo.backend.news.dto.NewsApiResponse;
+import com.weishuo.backend.news.dto.NewsFeedItem;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * 新闻数据与前端 Feed DTO 之间的转换，每个请求的每条新闻都会经过这里
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NewsFeedMapper {
+
+    private static final ZoneId CHINA_ZONE = ZoneId.of("Asia/Shanghai");
+    private static final ZoneOffset CHINA_OFFSET = ZoneOffset.ofHours(8);
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int MAX_TITLE_LENGTH = 500;
+    private static final int AVATAR_COUNT = 70;
+    private static final int MAX_AUTHOR_PROFILES = 4096;
+    private static final String[] AVATARS = new String[AVATAR_COUNT];
+
+    static {
+        for (int i = 0; i < AVATAR_COUNT; i++) {
+            AVATARS[i] = "https://i.pravatar.cc/120?img=" + i;
+        }
+    }
+
+    private static final FeedAuthor DEFAULT_BACKUP_AUTHOR = buildAuthor("实时热搜", "@news");
+
+    private final EngagementCounters engagementCounters;
+
+    /** 来源数量有限，作者信息按来源名缓存复用，避免每条新闻都重新构建 */
+    private final Map<String, FeedAuthor> authorProfiles = new ConcurrentHashMap<>();
+
+    /**
+     * 将 Mediastack 返回的文章转换为前端 DTO
+     */
+    public NewsFeedItem mapToFeedItem(MediastackResponse.Article article, String channel) {
+        return buildArticle(article.getUrl(), article.getTitle(), article.getDescription(), article.getSource(),
+                article.getImage(), article.getPublished_at());
+    }
+
+    /**
+     * 将 NewsAPI 返回的文章转换为前端 DTO
+     */
+    public NewsFeedItem mapNewsApiArticle(NewsApiResponse.Article article, String channel) {
+        String source = article.getSource() != null ? article.getSource().getName() : null;
+        return buildArticle(article.getUrl(), article.getTitle(), article.getDescription(), source,
+                article.getUrlToImage(), article.getPublishedAt());
+    }
+
+    private NewsFeedItem buildArticle(String url, String rawTitle, String rawDescription, String rawSource,
+                                      String image, String rawPublishedAt) {
+        // 与 news_backup.url_hash 一致，重启和重新抓取后 id 不变
+        String id = StringUtils.hasText(url) ? NewsBackup.hashUrl(url)
+                : NewsBackup.hashContent(rawTitle, rawDescription, rawSource, rawPublishedAt);
+        String title = StringUtils.hasText(rawTitle) ? rawTitle.trim() : "实时资讯快报";
+        String description = StringUtils.hasText(rawDescription) ? rawDescription.trim() : title;
+        String sourceName = StringUtils.hasText(rawSource) ? rawSource : "实时热搜";
+        LocalDateTime publishedAt = toChinaTime(rawPublishedAt);
+
+        FeedMedia media = null;
+        if (StringUtils.hasText(image)) {
+            media = FeedMedia.builder()
+                    .type("image")
+                    .cover(image)
+                    .build();
+        }
+
+        return NewsFeedItem.builder()
+                .id(id)
+                .tag("#" + truncateTitle(title) + "#")
+                .author(authorFor(sourceName))
+                .content(buildContent(title, description))
+                .media(media)
+                .stats(engagementCounters.statsFor(id))
+                .createdAt(formatLocalDateTime(publishedAt))
+                .publishedAt(publishedAt)
+                .source(sourceName)
+                .link(url)
+                .build();
+    }
+
+    /**
+     * 将数据库投影转换为前端 DTO，id 取 url_hash；只有未补齐摘要的重复历史记录使用主键
+     */
+    public NewsFeedItem convertToFeedItem(NewsBackupSummary backup) {
+        String id = backup.getUrlHash() != null ? backup.getUrlHash() : String.valueOf(backup.getId());
+
+        return NewsFeedItem.builder()
+                .id(id)
+                .tag(backup.getSummary() != null ? backup.getSummary() : "#新闻#")
+                .author(backup.getSource() != null ? authorFor(backup.getSource()) : DEFAULT_BACKUP_AUTHOR)
+                .content(backup.getContent() != null ? backup.getContent() : backup.getTitle())
+                .media(null)
+                .stats(engagementCounters.statsFor(id))
+                .createdAt(formatLocalDateTime(backup.getPublishedAt()))
+                .publishedAt(backup.getPublishedAt())
+                .source(backup.getSource())
+                .link(backup.getUrl())
+                .build();
+    }
+
+    /**
+     * 将前端 DTO 转换为待写入的备份记录，条目 id 即 url_hash，互动计数随记录一起可查
+     */
+    public NewsBackup toBackup(NewsFeedItem item, String category) {
+        return NewsBackup.builder()
+                .urlHash(item.getId())
+                .title(extractTitle(item.getContent()))
+                .summary(item.getTag())
+                .content(item.getContent())
+                .source(item.getSource())
+                .url(item.getLink())
+                .category(category)
+                .publishedAt(item.getPublishedAt() != null ? item.getPublishedAt() : parsePublishedAt(item.getCreatedAt()))
+                .build();
+    }
+
+    /**
+     * 解析 "MM-dd HH:mm" 格式的时间（年份取当前年），格式固定，直接按字符解析
+     */
+    public LocalDateTime parsePublishedAt(String createdAt) {
+        if (!StringUtils.hasText(createdAt)) {
+            return LocalDateTime.now();
+        }
+        try {
+            String value = createdAt.trim();
+            if (value.length() != 11 || value.charAt(2) != '-' || value.charAt(5) != ' ' || value.charAt(8) != ':') {
+                throw new DateTimeException("unexpected format");
+            }
+            return LocalDateTime.of(Year.now().getValue(),
+                    twoDigits(value, 0), twoDigits(value, 3), twoDigits(value, 6), twoDigits(value, 9));
+        } catch (DateTimeException ex) {
+            // 解析失败则返回当前时间
+            log.debug("解析时间失败: {}, 使用当前时间", createdAt);
+            return LocalDateTime.now();
+        }
+    }
+
+    public String formatLocalDateTime(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return "刚刚";
+        }
+        return formatTime(dateTime.getMonthValue(), dateTime.getDayOfMonth(), dateTime.getHour(), dateTime.getMinute());
+    }
+
+    /**
+     * 将 ISO-8601 时间转换为北京时间 "MM-dd HH:mm"
+     * Mediastack 固定返回 yyyy-MM-ddTHH:mm:ss+HH:MM，按字符解析；其他格式退回通用解析
+     */
+    public String formatPublishedAt(String publishedAt) {
+        return formatLocalDateTime(toChinaTime(publishedAt));
+    }
+
+    /**
+     * 将 ISO-8601 时间转换为北京时间，为空或无法解析时返回 null
+     */
+    private LocalDateTime toChinaTime(String publishedAt) {
+        if (!StringUtils.hasText(publishedAt)) {
+            return null;
+        }
+        try {
+            return isMediastackTimestamp(publishedAt)
+                    ? parseMediastackTimestamp(publishedAt)
+                    : OffsetDateTime.parse(publishedAt).atZoneSameInstant(CHINA_ZONE).toLocalDateTime();
+        } catch (DateTimeException ex) {
+            return null;
+        }
+    }
+
+    private FeedAuthor authorFor(String sourceName) {
+        FeedAuthor author = authorProfiles.get(sourceName);
+        if (author != null) {
+            return author;
+        }
+        author = buildAuthor(sourceName, "@" + WHITESPACE.matcher(sourceName).replaceAll(""));
+        if (authorProfiles.size() < MAX_AUTHOR_PROFILES) {
+            authorProfiles.putIfAbsent(sourceName, author);
+        }
+        return author;
+    }
+
+    private static FeedAuthor buildAuthor(String name, String handle) {
+        return FeedAuthor.builder()
+                .name(name)
+                .handle(handle)
+                .avatar(AVATARS[Math.floorMod(name.hashCode(), AVATAR_COUNT)])
+                .verified(true)
+                .badge("资讯")
+                .build();
+    }
+
+    private static boolean isMediastackTimestamp(String value) {
+        return value.length() == 25 && value.charAt(4) == '-' && value.charAt(7) == '-' && value.charAt(10) == 'T'
+                && value.charAt(13) == ':' && value.charAt(16) == ':' && value.charAt(22) == ':'
+                && (value.charAt(19) == '+' || value.charAt(19) == '-');
+    }
+
+    private static LocalDateTime parseMediastackTimestamp(String value) {
+        int offsetSeconds = (twoDigits(value, 20) * 3600 + twoDigits(value, 23) * 60) * (value.charAt(19) == '-' ? -1 : 1);
+        LocalDateTime utc = LocalDateTime.of(
+                twoDigits(value, 0) * 100 + twoDigits(value, 2), twoDigits(value, 5), twoDigits(value, 8),
+                twoDigits(value, 11), twoDigits(value, 14), twoDigits(value, 17))
+                .minusSeconds(offsetSeconds);
+        // 中国自 1991 年起不再实行夏令时，固定为 UTC+8
+        return utc.plusSeconds(CHINA_OFFSET.getTotalSeconds());
+    }
+
+    private static int twoDigits(String value, int index) {
+        int high = value.charAt(index) - '0';
+        int low = value.charAt(index + 1) - '0';
+        if (high < 0 || high > 9 || low < 0 || low > 9) {
+            throw new DateTimeException("invalid digit in " + value);
+        }
+        return high * 10 + low;
+    }
+
+    private static String formatTime(int month, int day, int hour, int minute) {
+        char[] chars = {
+                (char) ('0' + month / 10), (char) ('0' + month % 10), '-',
+                (char) ('0' + day / 10), (char) ('0' + day % 10), ' ',
+                (char) ('0' + hour / 10), (char) ('0' + hour % 10), ':',
+                (char) ('0' + minute / 10), (char) ('0' + minute % 10)
+        };
+        return new String(chars);
+    }
+
+    /**
+     * 正文第一行即标题，列表查询只读取 title 列
+     */
+    private String extractTitle(String content) {
+        if (!StringUtils.hasText(content)) {
+            return "实时资讯快报";
+        }
+        int lineEnd = content.indexOf('\n');
+        String title = lineEnd >= 0 ? content.substring(0, lineEnd) : content;
+        return title.length() <= MAX_TITLE_LENGTH ? title : title.substring(0, MAX_TITLE_LENGTH);
+    }
+
+    private String buildContent(String title, String description) {
+        if (title.equals(description)) {
+            return title;
+        }
+        return title + "\n" + description;
+    }
+
+    private String truncateTitle(String title) {
+        if (title.length() <= 20) {
+            return title;
+        }
+        return title.substring(0, 20);
+    }
+}
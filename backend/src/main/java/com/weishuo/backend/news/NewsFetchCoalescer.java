@@ -0,0 +1,63 @@
+package com.weishuo.backend.news;
+
+import com.weishuo.backend.news.dto.NewsFeedItem;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * 合并同一分类的并发上游请求（single-flight）
+ * 同一时刻每个分类只有一个调用方真正请求远程 API，其余调用方等待并共享同一结果
+ */
+@Component
+public class NewsFetchCoalescer {
+
+    private final Map<String, CompletableFuture<List<NewsFeedItem>>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter leaders;
+    private final Counter coalesced;
+
+    public NewsFetchCoalescer(MeterRegistry meterRegistry) {
+        this.leaders = meterRegistry.counter("news.upstream.singleflight", "role", "leader");
+        this.coalesced = meterRegistry.counter("news.upstream.singleflight", "role", "coalesced");
+        meterRegistry.gaugeMapSize("news.upstream.singleflight.inflight", List.of(), inFlight);
+    }
+
+    /**
+     * 执行或加入分类的上游请求；结果和异常都会传递给所有等待者
+     * 上游请求独立于首个订阅者运行，个别调用方取消不会中断其他等待者
+     */
+    public Mono<List<NewsFeedItem>> fetch(String category, Supplier<Mono<List<NewsFeedItem>>> fetcher) {
+        return Mono.defer(() -> {
+            CompletableFuture<List<NewsFeedItem>> own = new CompletableFuture<>();
+            CompletableFuture<List<NewsFeedItem>> existing = inFlight.putIfAbsent(category, own);
+            if (existing != null) {
+                coalesced.increment();
+                return Mono.fromFuture(existing, true);
+            }
+
+            leaders.increment();
+            Mono<List<NewsFeedItem>> upstream;
+            try {
+                upstream = fetcher.get();
+            } catch (RuntimeException ex) {
+                upstream = Mono.error(ex);
+            }
+            upstream.defaultIfEmpty(List.of())
+                    .subscribe(items -> {
+                        inFlight.remove(category, own);
+                        own.complete(items);
+                    }, ex -> {
+                        inFlight.remove(category, own);
+                        own.completeExceptionally(ex);
+                    });
+            return Mono.fromFuture(own, true);
+        });
+    }
+}
@@ -0,0 +1,72 @@
+package com.weishuo.backend.news;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * 新闻请求链路的分阶段耗时
+ * 每个阶段一个带百分位直方图的 news.stage 计时器，按阶段、分类和数据来源打标签；分类取值有限，标签基数可控
+ * 计时器首次使用时注册并缓存，之后每次记录只有一次 Map 查找
+ */
+@Component
+public class NewsMetrics {
+
+    /** 请求所有新闻提供方并合并结果 */
+    public static final String STAGE_REMOTE = "remote";
+    /** 将上游文章转换为 Feed DTO */
+    public static final String STAGE_MAP = "map";
+    /** 转换为备份实体并交给异步写入队列 */
+    public static final String STAGE_PERSIST = "persist";
+    /** 远程失败后从数据库读取 */
+    public static final String STAGE_FALLBACK = "fallback";
+    /** 序列化为 JSON 和 gzip 快照 */
+    public static final String STAGE_SERIALIZE = "serialize";
+
+    public static final String SOURCE_REMOTE = "remote";
+    public static final String SOURCE_DB_FALLBACK = "db-fallback";
+
+    private static final Duration MIN_EXPECTED = Duration.ofNanos(100_000);
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(30);
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> fallbacks = new ConcurrentHashMap<>();
+
+    public NewsMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Timer stage(String stage, String category, String source) {
+        return timers.computeIfAbsent(stage + '|' + category + '|' + source, key -> Timer.builder("news.stage")
+                .description("新闻请求链路各阶段耗时")
+                .tag("stage", stage)
+                .tag("category", category)
+                .tag("source", source)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(meterRegistry));
+    }
+
+    public <T> T record(String stage, String category, String source, Supplier<T> action) {
+        return stage(stage, category, source).record(action);
+    }
+
+    public void record(String stage, String category, String source, long startNanos) {
+        stage(stage, category, source).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一次降级到数据库读取
+     */
+    public void fallback(String category) {
+        fallbacks.computeIfAbsent(category, key -> meterRegistry.counter("news.fallbacks", "category", key)).increment();
+    }
+}
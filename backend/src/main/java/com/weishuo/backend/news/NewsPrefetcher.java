@@ -0,0 +1,83 @@
+package com.weishuo.backend.news;
+
+import com.weishuo.backend.config.NewsProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 后台定时预取所有频道，保持频道缓存常热
+ * 上游调用频率只由预取间隔决定，与访问量无关
+ */
+@Slf4j
+@Component
+public class NewsPrefetcher {
+
+    private final NewsProperties properties;
+    private final NewsService newsService;
+    private final NewsAggregator aggregator;
+    private final ScheduledExecutorService scheduler;
+
+    private final Counter runs;
+    private final Counter refreshedCategories;
+
+    public NewsPrefetcher(NewsProperties properties, NewsService newsService, NewsAggregator aggregator,
+                          MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.newsService = newsService;
+        this.aggregator = aggregator;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "news-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.runs = meterRegistry.counter("news.prefetch.runs");
+        this.refreshedCategories = meterRegistry.counter("news.prefetch.categories");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isPrefetchEnabled()) {
+            log.info("新闻后台预取已关闭");
+            return;
+        }
+        scheduleNext(Duration.ZERO);
+    }
+
+    private void scheduleNext(Duration baseDelay) {
+        if (scheduler.isShutdown()) {
+            return;
+        }
+        long jitterMillis = properties.getRefreshJitter().toMillis();
+        long delay = baseDelay.toMillis() + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+        scheduler.schedule(this::runOnce, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void runOnce() {
+        if (!aggregator.hasAvailableProvider()) {
+            log.debug("没有可用的新闻提供方，跳过本轮预取");
+            scheduleNext(properties.getRefreshInterval());
+            return;
+        }
+        runs.increment();
+        newsService.refreshAllChannels()
+                .doOnNext(category -> refreshedCategories.increment())
+                .doFinally(signal -> scheduleNext(properties.getRefreshInterval()))
+                .subscribe(category -> log.debug("预取分类 {} 完成", category),
+                        ex -> log.warn("新闻预取失败: {}", ex.getMessage()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,38 @@
+package com.weishuo.backend.news;
+
+import com.weishuo.backend.news.dto.NewsFeedItem;
+import java.time.Duration;
+import java.util.List;
+import reactor.core.publisher.Mono;
+
+/**
+ * 新闻提供方，由 NewsAggregator 并行调用并合并结果
+ * 测试中可以注册本地桩实现替代远程提供方
+ */
+public interface NewsProvider {
+
+    /**
+     * 提供方名称，用于日志和指标
+     */
+    String name();
+
+    /**
+     * 已启用且配置完整时才会参与抓取
+     */
+    boolean isAvailable();
+
+    /**
+     * 单次抓取的总超时
+     */
+    Duration timeout();
+
+    /**
+     * 对冲请求延迟，返回 null 表示不对冲
+     */
+    Duration hedgeDelay();
+
+    /**
+     * 抓取分类的最新新闻；失败时发出错误，由聚合器忽略该提供方
+     */
+    Mono<List<NewsFeedItem>> fetch(String category);
+}
@@ -0,0 +1,289 @@
+package com.weishuo.backend.news;
+
+import com.weishuo.backend.config.NewsRetentionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * news_backup 的保留策略：按分类删除超过保留时长或超出条数上限的旧新闻
+ * 删除按主键分批进行，每批一个短事务，批间停顿，避免长时间持锁影响写入；开启归档时同一事务内先复制到按月分区的归档表
+ * 同一批次的互动计数行在同一事务内删除，提交后再从全文检索索引、热度榜单和内存互动计数中移除；
+ * MySQL 下每轮清理前补齐归档表未来月份的分区
+ */
+@Slf4j
+@Component
+public class NewsRetentionService {
+
+    private static final ZoneId CHINA_ZONE = ZoneId.of("Asia/Shanghai");
+
+    private static final String SELECT_BATCH_SQL = "select id from news_backup where category = :category and ("
+            + "published_at < :cutoff or (published_at = :cutoff and id < :cutoffId) "
+            + "or (published_at is null and created_at < :ageCutoff)) limit :limit";
+    private static final String ARCHIVE_SQL = "insert into news_backup_archive (id, archive_month, title, summary, "
+            + "content, source, url, url_hash, category, published_at, created_at, archived_at) "
+            + "select id, year(coalesce(published_at, created_at, :now)) * 100 + month(coalesce(published_at, created_at, :now)), "
+            + "title, summary, content, source, url, url_hash, category, published_at, created_at, :now "
+            + "from news_backup where id in (:ids)";
+    /** 互动计数以 url_hash 为键，未补齐摘要的历史记录以主键为键 */
+    private static final String ITEM_KEYS_SQL = "select id, url_hash from news_backup where id in (:ids)";
+    private static final String ENGAGEMENT_SQL = "delete from feed_engagement where item_id in ("
+            + "select url_hash from news_backup where id in (:ids) and url_hash is not null) or item_id in (:idKeys)";
+    private static final String PARTITIONS_SQL = "select partition_name from information_schema.partitions "
+            + "where table_schema = database() and table_name = 'news_backup_archive' and partition_name is not null";
+    private static final Pattern MONTH_PARTITION = Pattern.compile("p(\\d{6})");
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final NewsRetentionProperties properties;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NewsSearchIndex searchIndex;
+    private final HotRankingEngine rankingEngine;
+    private final EngagementCounters engagementCounters;
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicLong backupRows = new AtomicLong();
+    private final AtomicLong archiveRows = new AtomicLong();
+    private final Counter runs;
+    private final Counter purged;
+    private final Counter archived;
+    private final Counter failures;
+    private final Timer batchTimer;
+
+    /** 是否为 MySQL，首次清理时读取；只有 MySQL 的归档表按月分区 */
+    private Boolean mysql;
+
+    public NewsRetentionService(NewsRetentionProperties properties, NamedParameterJdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager, NewsSearchIndex searchIndex,
+                                HotRankingEngine rankingEngine, EngagementCounters engagementCounters,
+                                MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.searchIndex = searchIndex;
+        this.rankingEngine = rankingEngine;
+        this.engagementCounters = engagementCounters;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "news-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.runs = meterRegistry.counter("news.retention.runs");
+        this.purged = meterRegistry.counter("news.retention.purged");
+        this.archived = meterRegistry.counter("news.retention.archived");
+        this.failures = meterRegistry.counter("news.retention.failures");
+        this.batchTimer = Timer.builder("news.retention.batch")
+                .description("单批清理（含归档）的耗时")
+                .register(meterRegistry);
+        Gauge.builder("news.backup.rows", backupRows, AtomicLong::get)
+                .description("最近一次清理后 news_backup 的行数")
+                .register(meterRegistry);
+        Gauge.builder("news.backup.archive.rows", archiveRows, AtomicLong::get)
+                .description("最近一次清理后 news_backup_archive 的行数")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("新闻保留策略已关闭");
+            return;
+        }
+        long intervalMillis = Math.max(1000, properties.getInterval().toMillis());
+        scheduler.scheduleWithFixedDelay(this::runOnce, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void runOnce() {
+        runs.increment();
+        try {
+            if (properties.isArchiveEnabled()) {
+                ensureArchivePartitions();
+            }
+            long total = 0;
+            for (String category : jdbcTemplate.getJdbcTemplate().queryForList(
+                    "select distinct category from news_backup where category is not null", String.class)) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                total += purgeCategory(category);
+            }
+            refreshSizes();
+            if (total > 0) {
+                log.info("新闻保留清理完成，共移除 {} 条", total);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            failures.increment();
+            log.warn("新闻保留清理失败: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * 清理单个分类，返回移除的条数
+     * 截止点取“超过保留时长”与“第 N 条之后”两者中更靠后的一个，按 (published_at, id) 比较
+     */
+    private long purgeCategory(String category) throws InterruptedException {
+        LocalDateTime ageCutoff = LocalDateTime.now(CHINA_ZONE).minus(properties.maxAgeFor(category));
+        LocalDateTime cutoff = ageCutoff;
+        long cutoffId = Long.MIN_VALUE;
+
+        int maxRows = properties.maxRowsFor(category);
+        if (maxRows > 0) {
+            // 走 (category, published_at, id) 索引定位第 maxRows 条，比它更旧的全部超出上限
+            List<Map<String, Object>> boundary = jdbcTemplate.queryForList(
+                    "select published_at, id from news_backup where category = :category and published_at is not null "
+                            + "order by published_at desc, id desc limit 1 offset :offset",
+                    Map.of("category", category, "offset", maxRows));
+            if (!boundary.isEmpty()) {
+                LocalDateTime rowCutoff = ((Timestamp) boundary.get(0).get("published_at")).toLocalDateTime();
+                long rowCutoffId = ((Number) boundary.get(0).get("id")).longValue() + 1;
+                if (rowCutoff.isAfter(cutoff)) {
+                    cutoff = rowCutoff;
+                    cutoffId = rowCutoffId;
+                }
+            }
+        }
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("category", category);
+        params.put("cutoff", Timestamp.valueOf(cutoff));
+        params.put("cutoffId", cutoffId);
+        params.put("ageCutoff", Timestamp.valueOf(ageCutoff));
+        params.put("limit", Math.max(1, properties.getBatchSize()));
+
+        long removed = 0;
+        Duration pause = properties.getBatchPause();
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(SELECT_BATCH_SQL, params, Long.class);
+            if (ids.isEmpty()) {
+                break;
+            }
+            Timer.Sample sample = Timer.start();
+            List<String> itemKeys = transactionTemplate.execute(status -> purgeBatch(ids));
+            sample.stop(batchTimer);
+            // 事务提交后再移出索引和内存状态，回滚的批次仍可检索；互动计数不丢弃的话下次写回会重新插入已删除的行
+            searchIndex.remove(ids);
+            rankingEngine.remove(itemKeys);
+            engagementCounters.remove(itemKeys);
+            removed += ids.size();
+            if (ids.size() < properties.getBatchSize()) {
+                break;
+            }
+            if (!pause.isZero()) {
+                Thread.sleep(pause.toMillis());
+            }
+        }
+        if (removed > 0) {
+            log.debug("分类 {} 清理 {} 条，截止 {}", category, removed, cutoff);
+        }
+        return removed;
+    }
+
+    /**
+     * 删除一批新闻，返回它们在信息流中的 id（url_hash，未补齐摘要的历史记录为主键）
+     */
+    private List<String> purgeBatch(List<Long> ids) {
+        Map<String, Object> params = Map.of("ids", ids, "now", Timestamp.valueOf(LocalDateTime.now(CHINA_ZONE)),
+                "idKeys", ids.stream().map(String::valueOf).collect(Collectors.toList()));
+        List<String> itemKeys = jdbcTemplate.query(ITEM_KEYS_SQL, params, (rs, rowNum) -> {
+            String urlHash = rs.getString("url_hash");
+            return urlHash != null ? urlHash : String.valueOf(rs.getLong("id"));
+        });
+        if (properties.isArchiveEnabled()) {
+            archived.increment(jdbcTemplate.update(ARCHIVE_SQL, params));
+        }
+        jdbcTemplate.update(ENGAGEMENT_SQL, params);
+        purged.increment(jdbcTemplate.update("delete from news_backup where id in (:ids)", params));
+        return itemKeys;
+    }
+
+    /**
+     * 归档表按 archive_month 做 RANGE 分区，最后一个分区是 pmax；把 pmax 拆分出从最新月份分区到
+     * 当月之后 archivePartitionsAhead - 1 个月的分区，避免新月份的数据全部落入 pmax
+     * 非 MySQL 数据库或归档表未分区时跳过
+     */
+    private void ensureArchivePartitions() {
+        if (mysql == null) {
+            mysql = jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<Boolean>) connection ->
+                    connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql"));
+        }
+        if (!Boolean.TRUE.equals(mysql)) {
+            return;
+        }
+        List<String> partitions = jdbcTemplate.getJdbcTemplate().queryForList(PARTITIONS_SQL, String.class);
+        if (!partitions.contains("pmax")) {
+            log.debug("news_backup_archive 未按月分区，跳过分区维护");
+            return;
+        }
+        YearMonth target = YearMonth.now(CHINA_ZONE).plusMonths(Math.max(1, properties.getArchivePartitionsAhead()) - 1);
+        YearMonth last = null;
+        for (String partition : partitions) {
+            Matcher matcher = MONTH_PARTITION.matcher(partition);
+            if (matcher.matches()) {
+                YearMonth month = YearMonth.parse(matcher.group(1), PARTITION_MONTH);
+                if (last == null || month.isAfter(last)) {
+                    last = month;
+                }
+            }
+        }
+        YearMonth next = last != null ? last.plusMonths(1) : YearMonth.now(CHINA_ZONE);
+        if (next.isAfter(target)) {
+            return;
+        }
+        StringBuilder ddl = new StringBuilder("alter table news_backup_archive reorganize partition pmax into (");
+        List<String> added = new ArrayList<>();
+        for (YearMonth month = next; !month.isAfter(target); month = month.plusMonths(1)) {
+            String name = "p" + month.format(PARTITION_MONTH);
+            ddl.append("partition ").append(name).append(" values less than (")
+                    .append(month.plusMonths(1).format(PARTITION_MONTH)).append("), ");
+            added.add(name);
+        }
+        ddl.append("partition pmax values less than maxvalue)");
+        jdbcTemplate.getJdbcTemplate().execute(ddl.toString());
+        log.info("已为 news_backup_archive 新增分区 {}", added);
+    }
+
+    private void refreshSizes() {
+        Long rows = jdbcTemplate.getJdbcTemplate().queryForObject("select count(*) from news_backup", Long.class);
+        backupRows.set(rows == null ? 0 : rows);
+        if (properties.isArchiveEnabled()) {
+            Long archivedRows = jdbcTemplate.getJdbcTemplate()
+                    .queryForObject("select count(*) from news_backup_archive", Long.class);
+            archiveRows.set(archivedRows == null ? 0 : archivedRows);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
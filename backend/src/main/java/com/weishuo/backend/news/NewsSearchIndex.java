@@ -0,0 +1,574 @@
+package com.weishuo.backend.news;
+
+import com.weishuo.backend.config.NewsSearchProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * news_backup 的内嵌倒排索引，按 BM25 排序
+ * 每条新闻的词频追加写入本地文档日志，启动时回放日志重建内存索引，再从数据库追赶日志之后新增的记录；
+ * 写入方只需调用 requestCatchUp，由单独的索引线程按 id 顺序增量读取新记录
+ * 删除的新闻在日志中追加墓碑并在内存中标记，查询时跳过；墓碑占比超过阈值时重写日志并压缩倒排列表
+ */
+@Slf4j
+@Component
+public class NewsSearchIndex {
+
+    private static final String LOG_FILE = "documents.log";
+    private static final String COMPACT_FILE = "documents.log.compact";
+    private static final String CATCH_UP_SQL = "select id, title, content from news_backup where id > ? order by id limit ?";
+    private static final int TITLE_WEIGHT = 2;
+    /** 墓碑记录的词项数，正常记录不会为负 */
+    private static final int TOMBSTONE = -1;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final NewsSearchProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ExecutorService indexer;
+    private final AtomicBoolean catchUpPending = new AtomicBoolean();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private long[] docIds = new long[1024];
+    private int[] docLengths = new int[1024];
+    private int docCount;
+    private int deletedCount;
+    private long totalLength;
+    private volatile long highWater;
+    private volatile boolean ready;
+    private Path logFile;
+    private DataOutputStream logOut;
+
+    private final Counter indexed;
+    private final Counter removed;
+    private final Counter compactions;
+    private final Timer queryTimer;
+
+    public NewsSearchIndex(NewsSearchProperties properties, JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.indexer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "news-search-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.indexed = meterRegistry.counter("news.search.indexed");
+        this.removed = meterRegistry.counter("news.search.removed");
+        this.compactions = meterRegistry.counter("news.search.compactions");
+        this.queryTimer = meterRegistry.timer("news.search.query");
+        meterRegistry.gauge("news.search.documents", this, index -> index.docCount - index.deletedCount);
+        meterRegistry.gauge("news.search.tombstones", this, index -> index.deletedCount);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("新闻全文检索已关闭");
+            return;
+        }
+        indexer.execute(() -> {
+            try {
+                openLog();
+                ready = true;
+                catchUp();
+                compactIfNecessary();
+            } catch (IOException | RuntimeException ex) {
+                log.error("加载新闻检索索引失败: {}", ex.getMessage());
+            }
+        });
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 通知索引线程读取数据库中的新记录，不阻塞调用方；多次调用在一次追赶中合并
+     */
+    public void requestCatchUp() {
+        if (!ready || !catchUpPending.compareAndSet(false, true)) {
+            return;
+        }
+        indexer.execute(() -> {
+            catchUpPending.set(false);
+            try {
+                catchUp();
+            } catch (IOException | RuntimeException ex) {
+                log.warn("新闻检索索引追赶失败: {}", ex.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 从索引中删除已不在 news_backup 中的新闻，不阻塞调用方；由索引线程写入墓碑，必要时压缩日志
+     */
+    public void remove(Collection<Long> ids) {
+        if (!properties.isEnabled() || ids.isEmpty()) {
+            return;
+        }
+        List<Long> copy = new ArrayList<>(ids);
+        indexer.execute(() -> {
+            try {
+                applyRemovals(copy);
+            } catch (IOException | RuntimeException ex) {
+                log.warn("从新闻检索索引删除记录失败: {}", ex.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 按相关度返回命中的新闻 id，最多 limit 条
+     */
+    public List<Long> search(String query, int limit) {
+        return queryTimer.record(() -> doSearch(query, Math.max(1, Math.min(limit, properties.getMaxResults()))));
+    }
+
+    private List<Long> doSearch(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>(NewsTokenizer.tokenize(query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int liveCount = docCount - deletedCount;
+            if (liveCount == 0) {
+                return List.of();
+            }
+            double avgLength = (double) totalLength / liveCount;
+            Map<Integer, Double> scores = new HashMap<>();
+            int used = 0;
+            for (String term : terms) {
+                if (used++ >= properties.getMaxQueryTerms()) {
+                    break;
+                }
+                Postings list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                // 文档频率包含尚未压缩掉的已删除文档，压缩后恢复精确值
+                double idf = Math.log(1 + (liveCount - list.size + 0.5) / (list.size + 0.5));
+                for (int i = 0; i < list.size; i++) {
+                    int doc = list.docs[i];
+                    if (deleted.get(doc)) {
+                        continue;
+                    }
+                    int tf = list.tfs[i];
+                    double norm = tf + K1 * (1 - B + B * docLengths[doc] / avgLength);
+                    scores.merge(doc, idf * tf * (K1 + 1) / norm, Double::sum);
+                }
+            }
+
+            PriorityQueue<Map.Entry<Integer, Double>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+            for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+                top.offer(entry);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            Long[] result = new Long[top.size()];
+            for (int i = result.length - 1; i >= 0; i--) {
+                result[i] = docIds[top.poll().getKey()];
+            }
+            return Arrays.asList(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按 id 顺序读取 highWater 之后的记录，写入日志后加入内存索引
+     */
+    private void catchUp() throws IOException {
+        int batchSize = Math.max(1, properties.getCatchUpBatchSize());
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(CATCH_UP_SQL, highWater, batchSize);
+            if (rows.isEmpty()) {
+                return;
+            }
+            for (Map<String, Object> row : rows) {
+                long id = ((Number) row.get("id")).longValue();
+                Map<String, Integer> frequencies = new LinkedHashMap<>();
+                for (String token : NewsTokenizer.tokenize((String) row.get("title"))) {
+                    frequencies.merge(token, TITLE_WEIGHT, Integer::sum);
+                }
+                for (String token : NewsTokenizer.tokenize((String) row.get("content"))) {
+                    frequencies.merge(token, 1, Integer::sum);
+                }
+                appendToLog(id, frequencies);
+                addDocument(id, frequencies);
+                indexed.increment();
+            }
+            logOut.flush();
+            if (rows.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private void applyRemovals(List<Long> ids) throws IOException {
+        if (logOut == null) {
+            return;
+        }
+        List<Long> marked = new ArrayList<>(ids.size());
+        lock.writeLock().lock();
+        try {
+            for (Long id : ids) {
+                if (markDeleted(id)) {
+                    marked.add(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (marked.isEmpty()) {
+            return;
+        }
+        for (Long id : marked) {
+            appendTombstone(id);
+        }
+        logOut.flush();
+        removed.increment(marked.size());
+        compactIfNecessary();
+    }
+
+    private void addDocument(long id, Map<String, Integer> frequencies) {
+        lock.writeLock().lock();
+        try {
+            if (ordinals.containsKey(id)) {
+                return;
+            }
+            if (docCount == docIds.length) {
+                docIds = Arrays.copyOf(docIds, docCount * 2);
+                docLengths = Arrays.copyOf(docLengths, docCount * 2);
+            }
+            int doc = docCount;
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), key -> new Postings()).add(doc, entry.getValue());
+                length += entry.getValue();
+            }
+            docIds[doc] = id;
+            docLengths[doc] = length;
+            ordinals.put(id, doc);
+            totalLength += length;
+            docCount++;
+            highWater = Math.max(highWater, id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 标记文档已删除，需持有写锁；文档不存在或已删除时返回 false
+     */
+    private boolean markDeleted(long id) {
+        Integer doc = ordinals.get(id);
+        if (doc == null || deleted.get(doc)) {
+            return false;
+        }
+        deleted.set(doc);
+        deletedCount++;
+        totalLength -= docLengths[doc];
+        return true;
+    }
+
+    private void compactIfNecessary() throws IOException {
+        if (deletedCount > 0 && deletedCount >= Math.max(properties.getCompactionMinDeleted(),
+                docCount * properties.getCompactionRatio())) {
+            compact();
+        }
+    }
+
+    /**
+     * 重写日志，只保留未删除的文档，再按相同的文档顺序压缩内存中的倒排列表；只在索引线程调用
+     * 新日志写完后原子替换旧日志，中途失败时旧日志和内存索引保持不变
+     */
+    private void compact() throws IOException {
+        long start = System.nanoTime();
+        int dropped = deletedCount;
+        Path temp = logFile.resolveSibling(COMPACT_FILE);
+        logOut.close();
+        try {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(logFile)));
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                while (true) {
+                    byte[] record = readLogRecord(in);
+                    if (record == null) {
+                        break;
+                    }
+                    ByteBuffer header = ByteBuffer.wrap(record);
+                    long id = header.getLong();
+                    if (header.getInt() == TOMBSTONE || isDeleted(id)) {
+                        continue;
+                    }
+                    out.writeInt(record.length);
+                    out.write(record);
+                }
+            }
+            Files.move(temp, logFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            compactMemory();
+        } finally {
+            Files.deleteIfExists(temp);
+            logOut = openAppender(logFile);
+        }
+        compactions.increment();
+        log.info("新闻检索索引压缩完成，移除 {} 条已删除文档，耗时 {} ms", dropped,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private boolean isDeleted(long id) {
+        Integer doc = ordinals.get(id);
+        return doc == null || deleted.get(doc);
+    }
+
+    private void compactMemory() {
+        lock.writeLock().lock();
+        try {
+            int[] remap = new int[docCount];
+            int live = 0;
+            for (int doc = 0; doc < docCount; doc++) {
+                if (deleted.get(doc)) {
+                    remap[doc] = -1;
+                    ordinals.remove(docIds[doc]);
+                    continue;
+                }
+                remap[doc] = live;
+                docIds[live] = docIds[doc];
+                docLengths[live] = docLengths[doc];
+                ordinals.put(docIds[live], live);
+                live++;
+            }
+            postings.values().removeIf(list -> list.retain(remap) == 0);
+            docCount = live;
+            deleted.clear();
+            deletedCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 回放文档日志；末尾的残缺记录（写入时进程退出）会被截断
+     * 记录格式：int 长度 + [long id, int 词项数, (UTF 词项, int 词频)*]；墓碑记录的词项数为 -1，没有词项
+     */
+    private void openLog() throws IOException {
+        Path directory = Paths.get(properties.getDirectory());
+        Files.createDirectories(directory);
+        logFile = directory.resolve(LOG_FILE);
+        // 压缩过程中进程退出留下的临时文件，旧日志仍然完整
+        Files.deleteIfExists(directory.resolve(COMPACT_FILE));
+        long validLength = 0;
+        if (Files.exists(logFile)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(logFile)))) {
+                while (true) {
+                    byte[] record = readLogRecord(in);
+                    if (record == null) {
+                        break;
+                    }
+                    readRecord(new ByteArrayInputStream(record));
+                    validLength += 4 + record.length;
+                }
+            }
+            try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.WRITE)) {
+                if (channel.size() > validLength) {
+                    log.warn("新闻检索日志末尾存在残缺记录，已截断 {} 字节", channel.size() - validLength);
+                    channel.truncate(validLength);
+                }
+            }
+            Long maxId = jdbcTemplate.queryForObject("select max(id) from news_backup", Long.class);
+            if (maxId == null || maxId < highWater) {
+                // 数据库被重建（例如内存数据库重启），日志中的 id 已失效，丢弃后从头建立索引
+                log.warn("检索日志与数据库不一致，重新建立索引");
+                reset();
+                Files.delete(logFile);
+            } else {
+                log.info("已从检索日志恢复 {} 条新闻（{} 条已删除）", docCount - deletedCount, deletedCount);
+            }
+        }
+        logOut = openAppender(logFile);
+    }
+
+    private static DataOutputStream openAppender(Path file) throws IOException {
+        OutputStream out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return new DataOutputStream(new BufferedOutputStream(out));
+    }
+
+    /**
+     * 读取一条完整记录，到达文件末尾或记录残缺时返回 null
+     */
+    private static byte[] readLogRecord(DataInputStream in) throws IOException {
+        int size;
+        try {
+            size = in.readInt();
+        } catch (EOFException ex) {
+            return null;
+        }
+        byte[] record = new byte[size];
+        try {
+            in.readFully(record);
+        } catch (EOFException ex) {
+            return null;
+        }
+        return record;
+    }
+
+    private void reset() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            ordinals.clear();
+            deleted.clear();
+            docIds = new long[1024];
+            docLengths = new int[1024];
+            docCount = 0;
+            deletedCount = 0;
+            totalLength = 0;
+            highWater = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void readRecord(InputStream record) throws IOException {
+        DataInputStream in = new DataInputStream(record);
+        long id = in.readLong();
+        int terms = in.readInt();
+        if (terms == TOMBSTONE) {
+            lock.writeLock().lock();
+            try {
+                markDeleted(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+        Map<String, Integer> frequencies = new LinkedHashMap<>(terms * 2);
+        for (int i = 0; i < terms; i++) {
+            frequencies.put(in.readUTF(), in.readInt());
+        }
+        addDocument(id, frequencies);
+    }
+
+    private void appendToLog(long id, Map<String, Integer> frequencies) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream record = new DataOutputStream(buffer);
+        record.writeLong(id);
+        record.writeInt(frequencies.size());
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            record.writeUTF(entry.getKey());
+            record.writeInt(entry.getValue());
+        }
+        logOut.writeInt(buffer.size());
+        buffer.writeTo(logOut);
+    }
+
+    private void appendTombstone(long id) throws IOException {
+        logOut.writeInt(Long.BYTES + Integer.BYTES);
+        logOut.writeLong(id);
+        logOut.writeInt(TOMBSTONE);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        indexer.shutdown();
+        if (!indexer.awaitTermination(10, TimeUnit.SECONDS)) {
+            // 强制中断时日志末尾可能残缺，下次启动回放时会截断
+            indexer.shutdownNow();
+        }
+        if (logOut != null) {
+            try {
+                logOut.close();
+            } catch (IOException ex) {
+                log.warn("关闭新闻检索日志失败: {}", ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 单个词项的倒排列表，文档序号递增追加
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int[] tfs = new int[4];
+        private int size;
+
+        private void add(int doc, int tf) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                tfs = Arrays.copyOf(tfs, size * 2);
+            }
+            docs[size] = doc;
+            tfs[size] = tf;
+            size++;
+        }
+
+        /**
+         * 按新的文档序号就地压缩，-1 表示文档已删除；序号映射单调递增，列表仍保持有序，返回剩余条数
+         */
+        private int retain(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = remap[docs[i]];
+                if (doc >= 0) {
+                    docs[kept] = doc;
+                    tfs[kept] = tfs[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            if (size < docs.length / 4 && docs.length > 4) {
+                docs = Arrays.copyOf(docs, Math.max(4, size * 2));
+                tfs = Arrays.copyOf(tfs, docs.length);
+            }
+            return size;
+        }
+    }
+}
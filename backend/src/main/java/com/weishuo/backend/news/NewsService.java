@@ -1,34 +1,37 @@
 package com.weishuo.backend.news;
 
-import com.weishuo.backend.config.NewsProperties;
-import com.weishuo.backend.news.dto.FeedAuthor;
-import com.weishuo.backend.news.dto.FeedMedia;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weishuo.backend.config.NewsRankingProperties;
+import com.weishuo.backend.news.dto.FeedPage;
 import com.weishuo.backend.news.dto.FeedStats;
-import com.weishuo.backend.news.dto.MediastackResponse;
 import com.weishuo.backend.news.dto.NewsFeedItem;
-import java.time.OffsetDateTime;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
-import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.util.UriBuilder;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class NewsService {
 
-    private static final ZoneId CHINA_ZONE = ZoneId.of("Asia/Shanghai");
-    private static final DateTimeFormatter TIME_FMT = DateTimeFormatter.ofPattern("MM-dd HH:mm");
         private static final Map<String, String> CATEGORY_MAP = Map.of(
             "hot", "general",
             "tech", "technology",
@@ -37,249 +40,343 @@ public class NewsService {
             "headline", "general"
         );
 
-    private final WebClient.Builder webClientBuilder;
-    private final NewsProperties properties;
+    private static final String DEFAULT_CHANNEL = "hot";
+    private static final int FALLBACK_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 50;
+
     private final NewsBackupRepository newsBackupRepository;
+    private final NewsFeedMapper feedMapper;
+    private final NewsWriteBehindQueue writeBehindQueue;
+    private final NewsFeedCache feedCache;
+    private final NewsFetchCoalescer fetchCoalescer;
+    private final Scheduler persistenceScheduler;
+    private final ObjectMapper objectMapper;
+    private final EngagementCounters engagementCounters;
+    private final HotRankingEngine rankingEngine;
+    private final NewsRankingProperties rankingProperties;
+    private final NewsSearchIndex searchIndex;
+    private final NearDuplicateDetector duplicateDetector;
+    private final NewsAggregator aggregator;
+    private final NewsMetrics newsMetrics;
 
     /**
-     * 获取最新新闻 - 优先从远程 API，失败时从数据库缓存读取
+     * 获取最新新闻快照 - 优先读取频道缓存，未命中时请求远程 API，失败时从数据库缓存读取
+     * 整条链路非阻塞，数据库访问在独立的有界调度器上执行
      */
-    public List<NewsFeedItem> fetchLatest(String channel) {
-        try {
-            // 第一步：尝试从远程 API 获取新闻
-            List<NewsFeedItem> freshNews = fetchFromRemoteApi(channel);
-            
-            if (!freshNews.isEmpty()) {
-                // 成功获取到新闻，保存到数据库作为缓存
-                saveToCache(freshNews, channel);
-                log.info("成功从远程 API 获取 {} 条新闻", freshNews.size());
-                return freshNews;
-            }
-        } catch (Exception ex) {
-            // 远程 API 失败，记录日志
-            log.warn("远程新闻 API 失败，切换到数据库缓存: {}", ex.getMessage());
-        }
-
-        // 第二步：从数据库缓存读取
-        return fetchFromCache();
+    public Mono<FeedSnapshot> fetchLatest(String requestedChannel) {
+        String channel = normalizeChannel(requestedChannel);
+        return feedCache.get(channel, this::loadFromRemote)
+                .filter(snapshot -> !snapshot.isEmpty())
+                .onErrorResume(ex -> {
+                    // 远程 API 失败，记录日志
+                    log.warn("远程新闻 API 失败，切换到数据库缓存: {}", ex.getMessage());
+                    return Mono.empty();
+                })
+                // 从数据库缓存读取
+                .switchIfEmpty(Mono.fromCallable(() -> {
+                    String category = categoryOf(channel);
+                    newsMetrics.fallback(category);
+                    List<NewsFeedItem> cached = newsMetrics.record(NewsMetrics.STAGE_FALLBACK, category,
+                            NewsMetrics.SOURCE_DB_FALLBACK, () -> fetchFromCache(channel));
+                    return newsMetrics.record(NewsMetrics.STAGE_SERIALIZE, category, NewsMetrics.SOURCE_DB_FALLBACK,
+                            () -> FeedSnapshot.of(cached, objectMapper));
+                }).subscribeOn(persistenceScheduler));
     }
 
     /**
-     * 从远程 API 获取新闻
+     * 规范化频道参数：已知频道忽略大小写和首尾空白，未知频道统一归入默认频道
+     * 频道缓存只以已知频道为键，任意参数既不会占用缓存条目，也不会触发额外的上游调用
      */
-    private List<NewsFeedItem> fetchFromRemoteApi(String channel) {
-        if (!properties.isConfigured()) {
-            log.warn("新闻 API Key 未配置");
-            throw new RuntimeException("API Key not configured");
+    static String normalizeChannel(String channel) {
+        if (channel == null) {
+            return DEFAULT_CHANNEL;
         }
+        if (CATEGORY_MAP.containsKey(channel)) {
+            return channel;
+        }
+        String normalized = channel.trim().toLowerCase(Locale.ROOT);
+        return CATEGORY_MAP.containsKey(normalized) ? normalized : DEFAULT_CHANNEL;
+    }
 
-            String category = CATEGORY_MAP.getOrDefault(channel, "general");
-                MediastackResponse response = webClientBuilder
-                    .baseUrl(properties.getBaseUrl())
-                    .build()
-                    .get()
-                    .uri(uriBuilder -> buildNewsUri(uriBuilder, category))
-                    .retrieve()
-                    .bodyToMono(MediastackResponse.class)
-                    .block();
+    /**
+     * 频道对应的上游分类，未知频道归入 general
+     */
+    static String categoryOf(String channel) {
+        return CATEGORY_MAP.getOrDefault(channel, "general");
+    }
 
-                if (response == null || response.getData() == null) {
-            throw new RuntimeException("Empty response from API");
-        }
+    /**
+     * 是否为已知频道，实时推送只接受已知频道，避免按任意参数创建推送流
+     */
+    public static boolean isSupportedChannel(String channel) {
+        return CATEGORY_MAP.containsKey(channel);
+    }
 
-                return response.getData().stream()
-                    .map(article -> mapToFeedItem(article, channel))
-                    .collect(Collectors.toList());
+    /**
+     * 刷新所有分类，并把结果写入映射到该分类的每个频道缓存，供后台预取调用
+     * 分类依次刷新，单个分类失败不影响其他分类
+     */
+    public Flux<String> refreshAllChannels() {
+        Map<String, List<String>> channelsByCategory = CATEGORY_MAP.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue, TreeMap::new,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+        return Flux.fromIterable(channelsByCategory.entrySet())
+                .concatMap(entry -> loadCategory(entry.getKey())
+                        .doOnNext(news -> entry.getValue().forEach(channel -> feedCache.put(channel, news)))
+                        .thenReturn(entry.getKey())
+                        .onErrorResume(ex -> {
+                            log.warn("预取分类 {} 失败: {}", entry.getKey(), ex.getMessage());
+                            return Mono.empty();
+                        }));
+    }
+
+    private Mono<List<NewsFeedItem>> loadFromRemote(String channel) {
+        return loadCategory(categoryOf(channel));
     }
 
     /**
-     * 保存新闻到数据库缓存
+     * 从所有新闻提供方获取分类新闻并交给异步写入队列，供频道缓存加载、后台刷新和预取使用
+     * 多个频道映射到同一分类，同一分类的并发请求只会真正执行一次；其他来源转载的近似重复新闻在入库和缓存前过滤
      */
-    private void saveToCache(List<NewsFeedItem> newsItems, String category) {
-        try {
-            int savedCount = 0;
-            for (NewsFeedItem item : newsItems) {
-                // 跳过没有 URL 的新闻（无法去重）
-                if (!StringUtils.hasText(item.getLink())) {
-                    continue;
-                }
-                
-                // 检查是否已存在（根据 URL 去重）
-                NewsBackup existing = newsBackupRepository.findByUrl(item.getLink());
-                if (existing == null) {
-                    NewsBackup backup = NewsBackup.builder()
-                            .title(item.getAuthor() != null ? item.getAuthor().getName() : "未知来源")
-                            .summary(item.getTag())
-                            .content(item.getContent())
-                            .source(item.getSource())
-                            .url(item.getLink())
-                            .category(category)
-                            .publishedAt(parsePublishedAt(item.getCreatedAt()))
-                            .build();
-                    newsBackupRepository.save(backup);
-                    savedCount++;
-                }
-            }
-            log.info("已缓存 {} 条新闻到数据库", savedCount);
-        } catch (Exception ex) {
-            log.error("保存新闻缓存失败: {}", ex.getMessage());
-        }
+    private Mono<List<NewsFeedItem>> loadCategory(String category) {
+        return fetchCoalescer.fetch(category, () -> timedFetch(category)
+                .map(duplicateDetector::filter)
+                .flatMap(this::withEngagement)
+                .doOnNext(freshNews -> {
+                    if (!freshNews.isEmpty()) {
+                        log.info("成功从远程 API 获取 {} 条新闻", freshNews.size());
+                        // 成功获取到新闻，异步保存到数据库作为缓存
+                        saveToCache(freshNews, category);
+                        rankingEngine.offer(category, freshNews);
+                    }
+                }));
     }
 
     /**
-     * 从数据库缓存读取新闻
+     * 请求所有提供方，成功和失败都计入 remote 阶段耗时，取消（例如被合并的请求全部放弃）不计入
      */
-    private List<NewsFeedItem> fetchFromCache() {
-        try {
-            List<NewsBackup> cachedNews = newsBackupRepository.findTop20ByOrderByPublishedAtDesc();
-            if (cachedNews.isEmpty()) {
-                log.warn("数据库缓存为空，返回空列表");
-                return Collections.emptyList();
-            }
+    private Mono<List<NewsFeedItem>> timedFetch(String category) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return aggregator.fetch(category)
+                    .doOnEach(signal -> {
+                        if (signal.isOnNext() || signal.isOnError()) {
+                            newsMetrics.record(NewsMetrics.STAGE_REMOTE, category, NewsMetrics.SOURCE_REMOTE, start);
+                        }
+                    });
+        });
+    }
 
-            log.info("从数据库缓存读取 {} 条新闻", cachedNews.size());
-            return cachedNews.stream()
-                    .map(this::convertToFeedItem)
-                    .collect(Collectors.toList());
-        } catch (Exception ex) {
-            log.error("读取缓存失败: {}", ex.getMessage());
-            return Collections.emptyList();
+    /**
+     * 补齐尚未加载的互动计数；全部已在内存中时不访问数据库
+     */
+    private Mono<List<NewsFeedItem>> withEngagement(List<NewsFeedItem> items) {
+        if (items.stream().allMatch(item -> engagementCounters.isLoaded(item.getId()))) {
+            return Mono.just(items);
         }
+        return Mono.fromCallable(() -> attachEngagement(items)).subscribeOn(persistenceScheduler);
     }
 
     /**
-     * 将数据库实体转换为前端 DTO
+     * 从数据库加载互动计数并写入新闻，会阻塞，只能在持久化调度器上调用
      */
-    private NewsFeedItem convertToFeedItem(NewsBackup backup) {
-        String id = backup.getUrl() != null ? Integer.toHexString(backup.getUrl().hashCode()) : String.valueOf(backup.getId());
+    private List<NewsFeedItem> attachEngagement(List<NewsFeedItem> items) {
+        engagementCounters.preload(items.stream().map(NewsFeedItem::getId).collect(Collectors.toList()));
+        return items.stream()
+                .map(item -> item.toBuilder().stats(engagementCounters.statsFor(item.getId())).build())
+                .collect(Collectors.toList());
+    }
 
-        FeedAuthor author = FeedAuthor.builder()
-                .name(backup.getSource() != null ? backup.getSource() : "实时热搜")
-                .handle("@" + (backup.getSource() != null ? backup.getSource().replaceAll("\\s+", "") : "news"))
-                .avatar("https://i.pravatar.cc/120?img=" + Math.abs(id.hashCode()) % 70)
-                .verified(true)
-                .badge("资讯")
-                .build();
+    /**
+     * 点赞，返回最新互动数；只接受已出现在 Feed 中或已写入 news_backup 的新闻
+     */
+    public Mono<FeedStats> like(String itemId) {
+        return recordEngagement(itemId, engagementCounters::like);
+    }
 
-        FeedStats stats = FeedStats.builder()
-                .reposts(ThreadLocalRandom.current().nextInt(20, 120))
-                .comments(ThreadLocalRandom.current().nextInt(40, 260))
-                .likes(ThreadLocalRandom.current().nextInt(200, 1800))
-                .build();
+    /**
+     * 转发，返回最新互动数
+     */
+    public Mono<FeedStats> repost(String itemId) {
+        return recordEngagement(itemId, engagementCounters::repost);
+    }
 
-        return NewsFeedItem.builder()
-                .id(id)
-                .tag(backup.getSummary() != null ? backup.getSummary() : "#新闻#")
-                .author(author)
-                .content(backup.getContent() != null ? backup.getContent() : backup.getTitle())
-                .media(null)
-                .stats(stats)
-                .createdAt(formatLocalDateTime(backup.getPublishedAt()))
-                .source(backup.getSource())
-                .link(backup.getUrl())
-                .build();
+    private Mono<FeedStats> recordEngagement(String itemId, Function<String, FeedStats> action) {
+        return doRecordEngagement(itemId, action).doOnNext(stats -> rankingEngine.updateStats(itemId, stats));
     }
 
-    private java.time.LocalDateTime parsePublishedAt(String createdAt) {
-        if (!StringUtils.hasText(createdAt)) {
-            return java.time.LocalDateTime.now();
+    private Mono<FeedStats> doRecordEngagement(String itemId, Function<String, FeedStats> action) {
+        if (engagementCounters.isLoaded(itemId)) {
+            return Mono.justOrEmpty(action.apply(itemId))
+                    .switchIfEmpty(Mono.defer(() -> doRecordEngagement(itemId, action)));
         }
+        return Mono.fromCallable(() -> {
+            if (!newsExists(itemId)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "新闻不存在");
+            }
+            engagementCounters.preload(List.of(itemId));
+            FeedStats stats = action.apply(itemId);
+            if (stats == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "新闻不存在");
+            }
+            return stats;
+        }).subscribeOn(persistenceScheduler);
+    }
+
+    /**
+     * 条目 id 是 url_hash，未补齐摘要的历史记录为主键；以 news_backup 为准，与互动计数是否在内存中无关
+     */
+    private boolean newsExists(String itemId) {
+        if (newsBackupRepository.existsByUrlHash(itemId)) {
+            return true;
+        }
+        if (itemId.isEmpty() || itemId.length() > 18 || !itemId.chars().allMatch(Character::isDigit)) {
+            return false;
+        }
+        return newsBackupRepository.existsById(Long.parseLong(itemId));
+    }
+
+    /**
+     * 保存新闻到数据库缓存，只负责入队，由后台线程批量去重写入
+     */
+    private void saveToCache(List<NewsFeedItem> newsItems, String category) {
+        long start = System.nanoTime();
         try {
-            // 尝试解析格式: "MM-dd HH:mm"
-            String currentYear = String.valueOf(java.time.Year.now().getValue());
-            String fullDateString = currentYear + "-" + createdAt.trim();
-            java.time.format.DateTimeFormatter formatter = 
-                java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-            return java.time.LocalDateTime.parse(fullDateString, formatter);
+            List<NewsBackup> backups = newsItems.stream()
+                    .map(item -> feedMapper.toBackup(item, category))
+                    .collect(Collectors.toList());
+            writeBehindQueue.enqueue(backups);
         } catch (Exception ex) {
-            // 解析失败则返回当前时间
-            log.debug("解析时间失败: {}, 使用当前时间", createdAt);
-            return java.time.LocalDateTime.now();
+            log.error("保存新闻缓存失败: {}", ex.getMessage());
+        } finally {
+            newsMetrics.record(NewsMetrics.STAGE_PERSIST, category, NewsMetrics.SOURCE_REMOTE, start);
         }
     }
 
-    private String formatLocalDateTime(java.time.LocalDateTime dateTime) {
-        if (dateTime == null) {
-            return "刚刚";
+    /**
+     * 读取频道的热度排行，榜单在内存中增量维护，读取不访问数据库；分类首次访问时从数据库加载候选新闻
+     */
+    public Mono<List<NewsFeedItem>> fetchHot(String channel, int limit) {
+        String category = categoryOf(channel);
+        if (!rankingEngine.isEmpty(category)) {
+            return Mono.just(rankingEngine.top(category, limit));
         }
-        return dateTime.atZone(CHINA_ZONE).format(TIME_FMT);
+        return Mono.fromCallable(() -> {
+            loadRankingCandidates(category);
+            return rankingEngine.top(category, limit);
+        }).subscribeOn(persistenceScheduler);
     }
 
-            private java.net.URI buildNewsUri(UriBuilder uriBuilder, String category) {
-        return uriBuilder
-                .path("/news")
-                .queryParam("access_key", properties.getApiKey())
-                .queryParam("countries", properties.normalizedCountry())
-                .queryParam("languages", properties.normalizedLanguage())
-                .queryParam("limit", properties.getPageSize())
-                .queryParam("categories", category)
-                .build();
+    /**
+     * 启动后为每个分类加载排名候选，失败不影响启动，首次访问时会再次尝试
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpRanking() {
+        Flux.fromIterable(new TreeSet<>(CATEGORY_MAP.values()))
+                .concatMap(category -> Mono.fromRunnable(() -> loadRankingCandidates(category))
+                        .subscribeOn(persistenceScheduler)
+                        .onErrorResume(ex -> {
+                            log.warn("加载分类 {} 的排名候选失败: {}", category, ex.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
     }
 
-            private NewsFeedItem mapToFeedItem(MediastackResponse.Article article, String channel) {
-            String id = article.getUrl() != null ? Integer.toHexString(article.getUrl().hashCode()) : String.valueOf(System.nanoTime());
-            String title = StringUtils.hasText(article.getTitle()) ? article.getTitle().trim() : "实时资讯快报";
-            String description = StringUtils.hasText(article.getDescription()) ? article.getDescription().trim() : title;
-            String sourceName = StringUtils.hasText(article.getSource()) ? article.getSource() : "实时热搜";
-
-        FeedAuthor author = FeedAuthor.builder()
-                .name(sourceName)
-            .handle("@" + sourceName.replaceAll("\\s+", ""))
-                .avatar("https://i.pravatar.cc/120?img=" + Math.abs(id.hashCode()) % 70)
-                .verified(true)
-                .badge("资讯")
-                .build();
-
-        FeedMedia media = null;
-        if (StringUtils.hasText(article.getImage())) {
-            media = FeedMedia.builder()
-                    .type("image")
-                .cover(article.getImage())
-                    .build();
+    /**
+     * 从数据库读取分类最近发布的新闻作为排名候选，走 (category, published_at, id) 索引，只读取候选数量的行
+     */
+    private void loadRankingCandidates(String category) {
+        List<NewsBackupSummary> rows = newsBackupRepository.findFeedPage(category,
+                PageRequest.of(0, Math.max(1, rankingProperties.getCapacity())));
+        if (rows.isEmpty()) {
+            return;
         }
-
-        FeedStats stats = FeedStats.builder()
-                .reposts(ThreadLocalRandom.current().nextInt(20, 120))
-                .comments(ThreadLocalRandom.current().nextInt(40, 260))
-                .likes(ThreadLocalRandom.current().nextInt(200, 1800))
-                .build();
-
-        return NewsFeedItem.builder()
-                .id(id)
-                .tag("#" + truncateTitle(title) + "#")
-                .author(author)
-                .content(buildContent(title, description))
-                .media(media)
-                .stats(stats)
-                .createdAt(formatPublishedAt(article.getPublished_at()))
-                .source(sourceName)
-                .link(article.getUrl())
-                .build();
+        rankingEngine.offer(category, attachEngagement(rows.stream()
+                .map(feedMapper::convertToFeedItem)
+                .collect(Collectors.toList())));
     }
 
-    private String buildContent(String title, String description) {
-        if (title.equals(description)) {
-            return title;
+    /**
+     * 全文检索已缓存的新闻，按相关度排序；索引查询在内存中完成，只按 id 回表读取命中的记录
+     */
+    public Mono<List<NewsFeedItem>> search(String query, int limit) {
+        if (!StringUtils.hasText(query)) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "搜索关键词不能为空"));
+        }
+        if (!searchIndex.isEnabled()) {
+            // 关闭检索时返回 404，503 只用于启动加载期间，提示客户端稍后重试
+            return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "全文检索未开启"));
         }
-        return title + "\n" + description;
+        if (!searchIndex.isReady()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "搜索索引尚未就绪"));
+        }
+        List<Long> ids = searchIndex.search(query, limit);
+        if (ids.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        return Mono.fromCallable(() -> {
+            Map<Long, NewsBackupSummary> rows = newsBackupRepository.findSummariesByIds(ids).stream()
+                    .collect(Collectors.toMap(NewsBackupSummary::getId, Function.identity()));
+            if (rows.size() < ids.size()) {
+                // 记录已在索引之外被删除（例如其他实例清理或手工删除），从索引中移除，之后的查询不再命中
+                searchIndex.remove(ids.stream().filter(id -> !rows.containsKey(id)).collect(Collectors.toList()));
+            }
+            // 按检索得分的顺序输出，已被清理的记录直接跳过
+            return attachEngagement(ids.stream()
+                    .map(rows::get)
+                    .filter(Objects::nonNull)
+                    .map(feedMapper::convertToFeedItem)
+                    .collect(Collectors.toList()));
+        }).subscribeOn(persistenceScheduler);
     }
 
-    private String truncateTitle(String title) {
-        if (title.length() <= 20) {
-            return title;
-        }
-        return title.substring(0, 20);
+    /**
+     * 按游标分页读取频道的历史新闻，游标格式为 publishedAt,id
+     */
+    public Mono<FeedPage> fetchFeedPage(String channel, String before, int limit) {
+        String category = categoryOf(channel);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return Mono.fromCallable(() -> {
+            List<NewsBackupSummary> rows;
+            if (StringUtils.hasText(before)) {
+                FeedCursor cursor = FeedCursor.parse(before);
+                rows = newsBackupRepository.findFeedPageBefore(category, cursor.getPublishedAt(), cursor.getId(),
+                        PageRequest.of(0, pageSize));
+            } else {
+                rows = newsBackupRepository.findFeedPage(category, PageRequest.of(0, pageSize));
+            }
+            String nextCursor = null;
+            if (rows.size() == pageSize) {
+                NewsBackupSummary last = rows.get(rows.size() - 1);
+                nextCursor = new FeedCursor(last.getPublishedAt(), last.getId()).format();
+            }
+            return FeedPage.builder()
+                    .items(attachEngagement(rows.stream().map(feedMapper::convertToFeedItem).collect(Collectors.toList())))
+                    .nextCursor(nextCursor)
+                    .build();
+        }).subscribeOn(persistenceScheduler);
     }
 
-    private String formatPublishedAt(String publishedAt) {
-        if (!StringUtils.hasText(publishedAt)) {
-            return "刚刚";
-        }
+    /**
+     * 从数据库缓存读取频道最新一页新闻
+     */
+    private List<NewsFeedItem> fetchFromCache(String channel) {
         try {
-            OffsetDateTime odt = OffsetDateTime.parse(publishedAt);
-            return odt.atZoneSameInstant(CHINA_ZONE).format(TIME_FMT);
+            String category = categoryOf(channel);
+            List<NewsBackupSummary> cachedNews = newsBackupRepository.findFeedPage(category,
+                    PageRequest.of(0, FALLBACK_PAGE_SIZE));
+            if (cachedNews.isEmpty()) {
+                log.warn("数据库缓存为空，返回空列表");
+                return Collections.emptyList();
+            }
+
+            log.info("从数据库缓存读取 {} 条新闻", cachedNews.size());
+            return attachEngagement(cachedNews.stream()
+                    .map(feedMapper::convertToFeedItem)
+                    .collect(Collectors.toList()));
         } catch (Exception ex) {
-            return "刚刚";
+            log.error("读取缓存失败: {}", ex.getMessage());
+            return Collections.emptyList();
         }
     }
 }
@@ -0,0 +1,135 @@
+package com.weishuo.backend.news;
+
+import com.weishuo.backend.config.NewsStreamProperties;
+import com.weishuo.backend.news.dto.NewsFeedItem;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * 按频道向 SSE 订阅者推送新出现的新闻
+ * 每个频道一个多播 Sink，按新闻 id 去重；慢订阅者只丢弃自己缓冲区中最旧的新闻，不影响其他订阅者
+ * 心跳由所有订阅者共享的一个定时流产生，空闲连接不占用线程
+ */
+@Component
+public class NewsStreamHub {
+
+    private final NewsStreamProperties properties;
+    private final Map<String, ChannelStream> channels = new ConcurrentHashMap<>();
+    private final Flux<Long> heartbeat;
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    private final Counter published;
+    private final Counter dropped;
+
+    public NewsStreamHub(NewsStreamProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.heartbeat = Flux.interval(properties.getHeartbeatInterval()).onBackpressureDrop().share();
+        this.published = meterRegistry.counter("news.stream.published");
+        this.dropped = meterRegistry.counter("news.stream.dropped");
+        meterRegistry.gauge("news.stream.subscribers", subscribers);
+    }
+
+    /**
+     * 订阅频道的新新闻，只推送订阅之后出现的新闻
+     */
+    public Flux<ServerSentEvent<NewsFeedItem>> subscribe(String channel) {
+        Flux<ServerSentEvent<NewsFeedItem>> items = channel(channel).sink.asFlux()
+                .onBackpressureBuffer(Math.max(1, properties.getSubscriberBuffer()),
+                        item -> dropped.increment(), BufferOverflowStrategy.DROP_OLDEST)
+                .map(item -> ServerSentEvent.<NewsFeedItem>builder()
+                        .id(item.getId())
+                        .event("news")
+                        .data(item)
+                        .build());
+        Flux<ServerSentEvent<NewsFeedItem>> heartbeats = heartbeat
+                .onBackpressureDrop()
+                .map(tick -> ServerSentEvent.<NewsFeedItem>builder().comment("heartbeat").build());
+        return Flux.merge(items, heartbeats)
+                .doOnSubscribe(subscription -> subscribers.incrementAndGet())
+                .doFinally(signal -> subscribers.decrementAndGet());
+    }
+
+    /**
+     * 以 SseEmitter 输出订阅，超时时间取 news.stream.timeout，只作用于推送连接，不影响其他异步接口
+     * 超时、客户端断开或写出失败时取消订阅
+     */
+    public SseEmitter open(String channel) {
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Disposable subscription = subscribe(channel).subscribe(event -> {
+            try {
+                emitter.send(toEmitterEvent(event));
+            } catch (IOException | IllegalStateException ex) {
+                emitter.completeWithError(ex);
+            }
+        }, emitter::completeWithError, emitter::complete);
+        emitter.onCompletion(subscription::dispose);
+        emitter.onError(ex -> subscription.dispose());
+        emitter.onTimeout(() -> {
+            subscription.dispose();
+            emitter.complete();
+        });
+        return emitter;
+    }
+
+    private static SseEmitter.SseEventBuilder toEmitterEvent(ServerSentEvent<NewsFeedItem> event) {
+        if (event.data() == null) {
+            return SseEmitter.event().comment(event.comment());
+        }
+        return SseEmitter.event()
+                .id(event.id())
+                .name(event.event())
+                .data(event.data(), MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * 推送频道最新列表中尚未推送过的新闻，按从旧到新的顺序发送
+     * 推送流只为已知频道创建，未知频道的写入直接忽略，流的数量有上限
+     */
+    public void publish(String channel, List<NewsFeedItem> items) {
+        if (!NewsService.isSupportedChannel(channel)) {
+            return;
+        }
+        ChannelStream stream = channel(channel);
+        synchronized (stream) {
+            for (int i = items.size() - 1; i >= 0; i--) {
+                NewsFeedItem item = items.get(i);
+                if (stream.seen.put(item.getId(), Boolean.TRUE) == null) {
+                    published.increment();
+                    stream.sink.tryEmitNext(item);
+                }
+            }
+        }
+    }
+
+    private ChannelStream channel(String channel) {
+        return channels.computeIfAbsent(channel, key -> new ChannelStream(Math.max(1, properties.getSeenCapacity())));
+    }
+
+    private static final class ChannelStream {
+        private final Sinks.Many<NewsFeedItem> sink = Sinks.many().multicast().directBestEffort();
+        private final Map<String, Boolean> seen;
+
+        private ChannelStream(int seenCapacity) {
+            this.seen = new LinkedHashMap<>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > seenCapacity;
+                }
+            };
+        }
+    }
+}
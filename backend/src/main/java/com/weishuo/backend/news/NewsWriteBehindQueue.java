@@ -0,0 +1,139 @@
+package com.weishuo.backend.news;
+
+import com.weishuo.backend.config.NewsPersistenceProperties;
+import com.weishuo.backend.config.NewsPersistenceProperties.OverflowPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 新闻异步写入队列（write-behind）
+ * 请求线程只负责入队，后台线程攒批、去重后写入 news_backup，用户请求不再等待数据库写入
+ */
+@Slf4j
+@Component
+public class NewsWriteBehindQueue {
+
+    private final NewsPersistenceProperties properties;
+    private final NewsBackupBatchWriter batchWriter;
+    private final NewsSearchIndex searchIndex;
+    private final BlockingQueue<NewsBackup> queue;
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    private final Counter enqueued;
+    private final Counter dropped;
+    private final Counter inserted;
+    private final Counter duplicates;
+    private final Counter flushFailures;
+    private final Timer flushTimer;
+
+    public NewsWriteBehindQueue(NewsPersistenceProperties properties, NewsBackupBatchWriter batchWriter,
+                                NewsSearchIndex searchIndex, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.batchWriter = batchWriter;
+        this.searchIndex = searchIndex;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        this.writerThread = new Thread(this::runWriter, "news-write-behind");
+        this.writerThread.setDaemon(true);
+
+        this.enqueued = meterRegistry.counter("news.persistence.queue.enqueued");
+        this.dropped = meterRegistry.counter("news.persistence.queue.dropped");
+        this.inserted = meterRegistry.counter("news.persistence.rows.inserted");
+        this.duplicates = meterRegistry.counter("news.persistence.rows.duplicate");
+        this.flushFailures = meterRegistry.counter("news.persistence.flush.failures");
+        this.flushTimer = meterRegistry.timer("news.persistence.flush");
+        meterRegistry.gaugeCollectionSize("news.persistence.queue.depth", List.of(), queue);
+    }
+
+    @PostConstruct
+    void start() {
+        writerThread.start();
+    }
+
+    /**
+     * 将新闻放入写入队列，不会阻塞调用线程；队列满时按配置的策略丢弃
+     */
+    public void enqueue(List<NewsBackup> backups) {
+        for (NewsBackup backup : backups) {
+            if (queue.offer(backup)) {
+                enqueued.increment();
+                continue;
+            }
+            if (properties.getOverflowPolicy() == OverflowPolicy.DROP_OLDEST && queue.poll() != null) {
+                dropped.increment();
+                if (queue.offer(backup)) {
+                    enqueued.increment();
+                    continue;
+                }
+            }
+            dropped.increment();
+        }
+    }
+
+    private void runWriter() {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        List<NewsBackup> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                long deadline = System.nanoTime() + properties.getFlushInterval().toNanos();
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    NewsBackup next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            flush(batch);
+        }
+
+        // 关闭前写完队列中剩余的新闻
+        queue.drainTo(batch);
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            flush(new ArrayList<>(batch.subList(from, Math.min(batch.size(), from + batchSize))));
+        }
+    }
+
+    private void flush(List<NewsBackup> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            int count = flushTimer.recordCallable(() -> batchWriter.insertNew(batch));
+            inserted.increment(count);
+            // 数据库中已存在（或缺少 URL 无法去重）而被跳过的行
+            duplicates.increment(batch.size() - count);
+            log.info("已缓存 {} 条新闻到数据库", count);
+            if (count > 0) {
+                searchIndex.requestCatchUp();
+            }
+        } catch (Exception ex) {
+            flushFailures.increment();
+            log.error("保存新闻缓存失败: {}", ex.getMessage());
+        } finally {
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // 不中断写线程，避免打断正在进行的 JDBC 写入；写线程最多等待一个刷新周期后退出
+        running = false;
+        writerThread.join(properties.getFlushInterval().plusSeconds(10).toMillis());
+    }
+}
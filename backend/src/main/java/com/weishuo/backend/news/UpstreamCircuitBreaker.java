@@ -0,0 +1,219 @@
+package com.weishuo.backend.news;
+
+import com.weishuo.backend.config.NewsResilienceProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+/**
+ * 远程新闻 API 的熔断器
+ * 基于最近 N 次调用的失败率在 CLOSED / OPEN / HALF_OPEN 之间切换；
+ * 同时根据成功调用的延迟分位数计算自适应超时，并维护按调用量比例累积的重试预算
+ * 每个新闻提供方持有自己的实例，指标按 provider 标签区分
+ */
+@Slf4j
+public class UpstreamCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final int LATENCY_SAMPLES = 128;
+
+    private final String provider;
+    private final Duration maxTimeout;
+    private final NewsResilienceProperties properties;
+
+    private final boolean[] outcomes;
+    private int outcomeIndex;
+    private int outcomeCount;
+    private int failureCount;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int latencyIndex;
+    private int latencyCount;
+    private volatile Duration adaptiveTimeout;
+
+    private double retryTokens;
+
+    private final Counter trips;
+    private final Counter rejected;
+    private final Counter retries;
+    private final Counter retriesDenied;
+
+    /**
+     * @param maxTimeout 自适应超时的上限，也是样本不足时使用的超时
+     */
+    public UpstreamCircuitBreaker(String provider, Duration maxTimeout, NewsResilienceProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.provider = provider;
+        this.maxTimeout = maxTimeout;
+        this.properties = properties;
+        this.outcomes = new boolean[Math.max(1, properties.getSlidingWindowSize())];
+        this.adaptiveTimeout = maxTimeout;
+
+        Tags tags = Tags.of("provider", provider);
+        this.trips = meterRegistry.counter("news.upstream.circuit.trips", tags);
+        this.rejected = meterRegistry.counter("news.upstream.circuit.rejected", tags);
+        this.retries = meterRegistry.counter("news.upstream.retries", tags.and("result", "allowed"));
+        this.retriesDenied = meterRegistry.counter("news.upstream.retries", tags.and("result", "denied"));
+        meterRegistry.gauge("news.upstream.circuit.state", tags, this, breaker -> breaker.getState().ordinal());
+        meterRegistry.gauge("news.upstream.timeout", tags, this, breaker -> breaker.currentTimeout().toMillis());
+    }
+
+    /**
+     * 请求调用许可；熔断期间直接拒绝，半开状态只放行有限的试探调用
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < properties.getOpenDuration().toNanos()) {
+                rejected.increment();
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits >= properties.getHalfOpenCalls()) {
+                rejected.increment();
+                return false;
+            }
+            halfOpenPermits++;
+        }
+        retryTokens = Math.min(properties.getMaxRetryTokens(), retryTokens + properties.getRetryRatio());
+        return true;
+    }
+
+    public synchronized void onSuccess(long latencyNanos) {
+        recordLatency(latencyNanos);
+        if (state == State.HALF_OPEN) {
+            halfOpenSuccesses++;
+            if (halfOpenSuccesses >= properties.getHalfOpenCalls()) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        recordOutcome(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+            return;
+        }
+        recordOutcome(true);
+        if (state == State.CLOSED && outcomeCount >= properties.getMinimumCalls()
+                && (double) failureCount / outcomeCount >= properties.getFailureRateThreshold()) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    /**
+     * 调用被取消时归还半开状态的试探名额
+     */
+    public synchronized void onCancel() {
+        if (state == State.HALF_OPEN && halfOpenPermits > 0) {
+            halfOpenPermits--;
+        }
+    }
+
+    /**
+     * 尝试消耗一次重试预算，重试次数不会超过调用量的 retryRatio 比例
+     * 预算充足时才向 quota 申请配额，配额也拿到后才扣除预算，配额被拒绝不会白白消耗预算
+     */
+    public synchronized boolean tryAcquireRetry(BooleanSupplier quota) {
+        if (state == State.CLOSED && retryTokens >= 1d && quota.getAsBoolean()) {
+            retryTokens -= 1d;
+            retries.increment();
+            return true;
+        }
+        retriesDenied.increment();
+        return false;
+    }
+
+    /**
+     * 当前自适应超时：最近成功调用的分位延迟 × 倍数，限制在 [minTimeout, maxTimeout] 之间
+     */
+    public Duration currentTimeout() {
+        return adaptiveTimeout;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * 只重试超时、连接错误和 5xx，4xx 说明请求本身有问题，重试没有意义
+     */
+    public static boolean isRetryable(Throwable ex) {
+        if (ex instanceof TimeoutException || ex instanceof WebClientRequestException) {
+            return true;
+        }
+        return ex instanceof WebClientResponseException responseException
+                && responseException.getStatusCode().is5xxServerError();
+    }
+
+    private void transitionTo(State next) {
+        if (state == next) {
+            return;
+        }
+        log.warn("新闻提供方 {} 熔断器状态变更: {} -> {}", provider, state, next);
+        state = next;
+        halfOpenPermits = 0;
+        halfOpenSuccesses = 0;
+        if (next == State.OPEN) {
+            openedAt = System.nanoTime();
+            trips.increment();
+        } else if (next == State.CLOSED) {
+            Arrays.fill(outcomes, false);
+            outcomeIndex = 0;
+            outcomeCount = 0;
+            failureCount = 0;
+        }
+    }
+
+    private void recordOutcome(boolean failure) {
+        if (outcomeCount == outcomes.length) {
+            if (outcomes[outcomeIndex]) {
+                failureCount--;
+            }
+        } else {
+            outcomeCount++;
+        }
+        outcomes[outcomeIndex] = failure;
+        if (failure) {
+            failureCount++;
+        }
+        outcomeIndex = (outcomeIndex + 1) % outcomes.length;
+    }
+
+    private void recordLatency(long latencyNanos) {
+        latencies[latencyIndex] = latencyNanos;
+        latencyIndex = (latencyIndex + 1) % LATENCY_SAMPLES;
+        latencyCount = Math.min(LATENCY_SAMPLES, latencyCount + 1);
+        if (latencyCount < properties.getMinLatencySamples()) {
+            return;
+        }
+
+        long[] sorted = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(properties.getTimeoutPercentile() * latencyCount) - 1;
+        long percentile = sorted[Math.max(0, Math.min(latencyCount - 1, rank))];
+
+        long timeout = (long) (percentile * properties.getTimeoutMultiplier());
+        long min = properties.getMinTimeout().toNanos();
+        long max = maxTimeout.toNanos();
+        adaptiveTimeout = Duration.ofNanos(Math.max(min, Math.min(max, timeout)));
+    }
+}
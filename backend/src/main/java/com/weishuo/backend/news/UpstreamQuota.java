@@ -0,0 +1,65 @@
+package com.weishuo.backend.news;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * 远程 API 的调用配额（令牌桶）
+ * 按每日配额匀速补充令牌，桶容量为一天的配额；所有上游调用都需要先取得令牌
+ * 每个新闻提供方持有自己的实例，配额小于等于 0 表示不限制
+ */
+public class UpstreamQuota {
+
+    private static final double NANOS_PER_DAY = 86_400d * 1_000_000_000d;
+
+    private final int dailyQuota;
+    private final Counter granted;
+    private final Counter rejected;
+
+    private double tokens;
+    private long lastRefill = System.nanoTime();
+
+    public UpstreamQuota(String provider, int dailyQuota, MeterRegistry meterRegistry) {
+        this.dailyQuota = dailyQuota;
+        this.tokens = dailyQuota;
+        Tags tags = Tags.of("provider", provider);
+        this.granted = meterRegistry.counter("news.upstream.quota", tags.and("result", "granted"));
+        this.rejected = meterRegistry.counter("news.upstream.quota", tags.and("result", "rejected"));
+        meterRegistry.gauge("news.upstream.quota.available", tags, this, UpstreamQuota::available);
+    }
+
+    /**
+     * 尝试占用一次调用配额
+     */
+    public boolean tryAcquire() {
+        if (dailyQuota <= 0) {
+            granted.increment();
+            return true;
+        }
+        synchronized (this) {
+            refill();
+            if (tokens >= 1d) {
+                tokens -= 1d;
+                granted.increment();
+                return true;
+            }
+        }
+        rejected.increment();
+        return false;
+    }
+
+    private synchronized double available() {
+        if (dailyQuota <= 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        refill();
+        return tokens;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(dailyQuota, tokens + (now - lastRefill) * dailyQuota / NANOS_PER_DAY);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,15 @@
+package com.weishuo.backend.news.dto;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class FeedPage {
+
+    List<NewsFeedItem> items;
+
+    /** 下一页游标，格式为 publishedAt,id；没有更多数据时为 null */
+    String nextCursor;
+}
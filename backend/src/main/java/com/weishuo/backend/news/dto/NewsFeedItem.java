@@ -1,10 +1,12 @@
 package com.weishuo.backend.news.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.time.LocalDateTime;
 import lombok.Builder;
 import lombok.Value;
 
 @Value
-@Builder
+@Builder(toBuilder = true)
 public class NewsFeedItem {
 
     String id;
@@ -16,4 +18,8 @@ public class NewsFeedItem {
     String createdAt;
     String source;
     String link;
+
+    /** 发布时间（北京时间），仅供服务端排序和入库使用，不返回给前端 */
+    @JsonIgnore
+    LocalDateTime publishedAt;
 }
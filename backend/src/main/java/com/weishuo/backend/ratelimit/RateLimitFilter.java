@@ -0,0 +1,177 @@
+package com.weishuo.backend.ratelimit;
+
+import com.weishuo.backend.auth.AuthTokenFilter;
+import com.weishuo.backend.auth.TokenClaims;
+import com.weishuo.backend.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * 按路由策略对客户端限流，超出时直接返回 429 和 Retry-After，请求不会进入控制器
+ * 排在 {@link AuthTokenFilter} 之后，按用户限流的策略可以读取已校验的令牌
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 30)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final byte[] REJECTED_BODY = ("{\"status\":429,\"error\":\"Too Many Requests\","
+            + "\"message\":\"请求过于频繁，请稍后重试\"}").getBytes(StandardCharsets.UTF_8);
+
+    private final RateLimitProperties properties;
+    private final List<Route> routes = new ArrayList<>();
+    private final ScheduledExecutorService sweeper;
+    private final Counter evictions;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        for (RateLimitProperties.Policy policy : properties.getPolicies()) {
+            routes.add(new Route(policy, properties, meterRegistry));
+        }
+        this.evictions = meterRegistry.counter("ratelimit.evictions");
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ratelimit-sweep");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long idleMillis = Math.max(1000, properties.getIdleTimeout().toMillis());
+        long sweepMillis = Math.max(1000, idleMillis / 2);
+        sweeper.scheduleWithFixedDelay(() -> sweep(TimeUnit.MILLISECONDS.toNanos(idleMillis)),
+                sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || routes.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Route route = match(request);
+        if (route != null) {
+            long waitNanos = route.limiter.tryAcquire(clientKey(route.keyType, request), System.nanoTime());
+            if (waitNanos > 0) {
+                route.rejected.increment();
+                reject(response, waitNanos);
+                return;
+            }
+            route.allowed.increment();
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private Route match(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (Route route : routes) {
+            if (route.matches(path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private String clientKey(RateLimitProperties.KeyType keyType, HttpServletRequest request) {
+        if (keyType == RateLimitProperties.KeyType.USER
+                && request.getAttribute(AuthTokenFilter.CLAIMS_ATTRIBUTE) instanceof TokenClaims claims) {
+            return "u:" + claims.getUserId();
+        }
+        if (properties.isTrustForwardedFor()) {
+            // 左侧的地址由客户端自行填写，只有最右侧的地址是受信任的代理追加的
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                String last = forwarded.substring(forwarded.lastIndexOf(',') + 1).trim();
+                if (!last.isEmpty()) {
+                    return last;
+                }
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(REJECTED_BODY.length);
+        response.getOutputStream().write(REJECTED_BODY);
+    }
+
+    private void sweep(long idleNanos) {
+        try {
+            long now = System.nanoTime();
+            for (Route route : routes) {
+                evictions.increment(route.limiter.evictIdle(now, idleNanos));
+            }
+        } catch (RuntimeException ex) {
+            log.warn("清理限流记录失败: {}", ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    private static final class Route {
+        private final List<PathPattern> patterns = new ArrayList<>();
+        private final RateLimitProperties.KeyType keyType;
+        private final TokenBucketLimiter limiter;
+        private final Counter allowed;
+        private final Counter rejected;
+
+        private Route(RateLimitProperties.Policy policy, RateLimitProperties properties, MeterRegistry meterRegistry) {
+            for (String pattern : policy.getPatterns()) {
+                patterns.add(PathPatternParser.defaultInstance.parse(pattern));
+            }
+            this.keyType = policy.getKey();
+            this.limiter = new TokenBucketLimiter(policy.getCapacity(), policy.getRefillPerSecond(),
+                    properties.getShards(), properties.getMaxEntriesPerShard());
+            this.allowed = meterRegistry.counter("ratelimit.requests", "policy", policy.getName(), "result", "allowed");
+            this.rejected = meterRegistry.counter("ratelimit.requests", "policy", policy.getName(), "result", "rejected");
+            Gauge.builder("ratelimit.clients", limiter, TokenBucketLimiter::size)
+                    .tag("policy", policy.getName())
+                    .description("正在跟踪的客户端数")
+                    .register(meterRegistry);
+            FunctionCounter.builder("ratelimit.overflow", limiter, TokenBucketLimiter::overflowed)
+                    .tag("policy", policy.getName())
+                    .description("分片已满时落入共享溢出桶的请求数")
+                    .register(meterRegistry);
+        }
+
+        private boolean matches(PathContainer path) {
+            for (PathPattern pattern : patterns) {
+                if (pattern.matches(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
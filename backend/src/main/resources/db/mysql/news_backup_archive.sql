@@ -0,0 +1,32 @@
+-- 新闻归档表（MySQL），按发布月份 RANGE 分区
+-- 在启用 news.retention.archive-enabled 之前手动执行；表已由 Hibernate 创建时先确认为空再 DROP 后执行
+-- 开启归档后，清理任务每轮都会从 pmax 中拆出未来 news.retention.archive-partitions-ahead 个月的分区
+-- （NewsRetentionService.ensureArchivePartitions），等价于手动执行：
+--   ALTER TABLE news_backup_archive REORGANIZE PARTITION pmax INTO (
+--       PARTITION p202701 VALUES LESS THAN (202702),
+--       PARTITION pmax VALUES LESS THAN MAXVALUE);
+-- 整月归档数据过期后直接删除分区，不产生逐行删除：
+--   ALTER TABLE news_backup_archive DROP PARTITION p202601;
+
+CREATE TABLE IF NOT EXISTS news_backup_archive (
+    id            BIGINT       NOT NULL,
+    archive_month INT          NOT NULL,
+    title         VARCHAR(500) NOT NULL,
+    summary       TEXT,
+    content       TEXT,
+    source        VARCHAR(100),
+    url           VARCHAR(1000),
+    url_hash      VARCHAR(64),
+    category      VARCHAR(50),
+    published_at  DATETIME(6),
+    created_at    DATETIME(6),
+    archived_at   DATETIME(6),
+    PRIMARY KEY (id, archive_month),
+    KEY idx_news_backup_archive_category (category, published_at)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4
+PARTITION BY RANGE (archive_month) (
+    PARTITION p202610 VALUES LESS THAN (202611),
+    PARTITION p202611 VALUES LESS THAN (202612),
+    PARTITION p202612 VALUES LESS THAN (202701),
+    PARTITION pmax VALUES LESS THAN MAXVALUE
+);
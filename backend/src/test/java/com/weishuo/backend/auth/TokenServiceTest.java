@@ -0,0 +1,147 @@
+package com.weishuo.backend.auth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weishuo.backend.config.AuthTokenProperties;
+import com.weishuo.backend.user.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class TokenServiceTest {
+
+	private static final String OLD_SECRET = "0123456789abcdef0123456789abcdef-old";
+	private static final String NEW_SECRET = "0123456789abcdef0123456789abcdef-new";
+
+	private final User user = User.builder().id(42L).username("alice").displayName("Alice").build();
+
+	private static AuthTokenProperties.SigningKey key(String id, String secret) {
+		AuthTokenProperties.SigningKey key = new AuthTokenProperties.SigningKey();
+		key.setId(id);
+		key.setSecret(secret);
+		return key;
+	}
+
+	private static AuthTokenProperties properties(String activeKey, AuthTokenProperties.SigningKey... keys) {
+		AuthTokenProperties properties = new AuthTokenProperties();
+		properties.setActiveKey(activeKey);
+		properties.setKeys(List.of(keys));
+		return properties;
+	}
+
+	private static TokenService service(AuthTokenProperties properties) {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		// 不调用 start()，吊销记录只保存在内存中，不会访问数据库
+		TokenRevocationList revocationList = new TokenRevocationList(properties, new JdbcTemplate(), meterRegistry);
+		return new TokenService(properties, revocationList, new ObjectMapper(), meterRegistry);
+	}
+
+	private static String segment(String token, int index) {
+		return token.split("\\.")[index];
+	}
+
+	@Test
+	void issuedTokensVerifyWithMatchingType() {
+		TokenService service = service(properties("k1", key("k1", OLD_SECRET)));
+
+		TokenService.TokenPair tokens = service.issue(user);
+
+		TokenClaims access = service.verifyAccess(tokens.getAccessToken()).orElseThrow();
+		assertThat(access.getUserId()).isEqualTo(42L);
+		assertThat(access.getUsername()).isEqualTo("alice");
+		assertThat(access.getDisplayName()).isEqualTo("Alice");
+		assertThat(service.verifyRefresh(tokens.getRefreshToken())).isPresent();
+		assertThat(service.verifyRefresh(tokens.getAccessToken())).isEmpty();
+		assertThat(service.verifyAccess(tokens.getRefreshToken())).isEmpty();
+	}
+
+	@Test
+	void rejectsTamperedSignatureAndPayload() {
+		TokenService service = service(properties("k1", key("k1", OLD_SECRET)));
+		String token = service.issue(user).getAccessToken();
+
+		String signature = segment(token, 2);
+		String flipped = (signature.charAt(0) == 'A' ? 'B' : 'A') + signature.substring(1);
+		assertThat(service.verifyAccess(segment(token, 0) + "." + segment(token, 1) + "." + flipped)).isEmpty();
+
+		String payload = new String(Base64.getUrlDecoder().decode(segment(token, 1)), StandardCharsets.UTF_8)
+				.replace("\"sub\":42", "\"sub\":1");
+		String forged = segment(token, 0) + "."
+				+ Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+				+ "." + signature;
+		assertThat(service.verifyAccess(forged)).isEmpty();
+
+		assertThat(service.verifyAccess("not-a-token")).isEmpty();
+	}
+
+	@Test
+	void rejectsTokenSignedWithDifferentSecretOrIssuer() {
+		String token = service(properties("k1", key("k1", OLD_SECRET))).issue(user).getAccessToken();
+
+		assertThat(service(properties("k1", key("k1", NEW_SECRET))).verifyAccess(token)).isEmpty();
+
+		AuthTokenProperties otherIssuer = properties("k1", key("k1", OLD_SECRET));
+		otherIssuer.setIssuer("someone-else");
+		assertThat(service(otherIssuer).verifyAccess(token)).isEmpty();
+	}
+
+	@Test
+	void missingSecretFallsBackToRandomKeyOnlyWhenAllowed() {
+		TokenService dev = service(properties("k1", key("k1", "")));
+		assertThat(dev.verifyAccess(dev.issue(user).getAccessToken())).isPresent();
+
+		AuthTokenProperties strict = properties("k1", key("k1", ""));
+		strict.setAllowRandomSecret(false);
+		assertThatThrownBy(() -> service(strict))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("AUTH_TOKEN_SECRET");
+	}
+
+	@Test
+	void rejectsExpiredTokens() {
+		AuthTokenProperties properties = properties("k1", key("k1", OLD_SECRET));
+		properties.setAccessTtl(Duration.ZERO);
+		TokenService service = service(properties);
+
+		TokenService.TokenPair tokens = service.issue(user);
+
+		assertThat(service.verifyAccess(tokens.getAccessToken())).isEmpty();
+		assertThat(service.verifyRefresh(tokens.getRefreshToken())).isPresent();
+	}
+
+	@Test
+	void keyRotationKeepsOldTokensValidUntilOldKeyIsRemoved() {
+		String oldToken = service(properties("k1", key("k1", OLD_SECRET))).issue(user).getAccessToken();
+
+		TokenService rotated = service(properties("k2", key("k1", OLD_SECRET), key("k2", NEW_SECRET)));
+		assertThat(rotated.verifyAccess(oldToken)).isPresent();
+		String newToken = rotated.issue(user).getAccessToken();
+		assertThat(new String(Base64.getUrlDecoder().decode(segment(newToken, 0)), StandardCharsets.UTF_8))
+				.contains("\"kid\":\"k2\"");
+
+		TokenService retired = service(properties("k2", key("k2", NEW_SECRET)));
+		assertThat(retired.verifyAccess(newToken)).isPresent();
+		assertThat(retired.verifyAccess(oldToken)).isEmpty();
+	}
+
+	@Test
+	void revokedAndRotatedTokensAreRejectedEvenWhenCached() {
+		TokenService service = service(properties("k1", key("k1", OLD_SECRET)));
+		TokenService.TokenPair tokens = service.issue(user);
+		TokenClaims access = service.verifyAccess(tokens.getAccessToken()).orElseThrow();
+
+		service.revoke(access);
+		assertThat(service.verifyAccess(tokens.getAccessToken())).isEmpty();
+
+		TokenClaims refresh = service.verifyRefresh(tokens.getRefreshToken()).orElseThrow();
+		assertThat(service.rotate(refresh)).isPresent();
+		assertThat(service.rotate(refresh)).isEmpty();
+		assertThat(service.verifyRefresh(tokens.getRefreshToken())).isEmpty();
+	}
+}
@@ -0,0 +1,139 @@
+package com.weishuo.backend.auth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.weishuo.backend.config.UsernameFilterProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+class UsernameBloomFilterTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private JdbcTemplate jdbcTemplate;
+	private UsernameBloomFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+				"jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+		jdbcTemplate.execute("create table users (username varchar(64) not null)");
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (filter != null) {
+			filter.shutdown();
+		}
+		jdbcTemplate.execute("shutdown");
+	}
+
+	private UsernameBloomFilter filter(int expectedInsertions) {
+		UsernameFilterProperties properties = new UsernameFilterProperties();
+		properties.setExpectedInsertions(expectedInsertions);
+		filter = new UsernameBloomFilter(properties, jdbcTemplate, meterRegistry);
+		return filter;
+	}
+
+	private List<String> register(String prefix, int count) {
+		List<String> usernames = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			usernames.add(prefix + i);
+		}
+		jdbcTemplate.batchUpdate("insert into users (username) values (?)",
+				usernames.stream().map(username -> new Object[] {username}).toList());
+		return usernames;
+	}
+
+	private void awaitRebuilds(int expected) throws InterruptedException {
+		long deadline = System.nanoTime() + 10_000_000_000L;
+		while (meterRegistry.counter("auth.username.filter.rebuilds").count() < expected) {
+			assertThat(System.nanoTime()).as("等待布隆过滤器重建").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	private double gauge(String name) {
+		return meterRegistry.get(name).gauge().value();
+	}
+
+	@Test
+	void treatsEverythingAsPresentUntilBuilt() {
+		UsernameBloomFilter filter = filter(1000);
+
+		assertThat(filter.mightContain("anyone")).isTrue();
+	}
+
+	@Test
+	void hasNoFalseNegativesForScannedAndAddedUsers() throws InterruptedException {
+		List<String> existing = register("user-", 5000);
+		UsernameBloomFilter filter = filter(10000);
+		filter.start();
+		awaitRebuilds(1);
+
+		filter.put("Late-Comer");
+
+		assertThat(existing).allMatch(filter::mightContain);
+		assertThat(filter.mightContain("late-comer")).isTrue();
+		assertThat(filter.mightContain("  USER-42 ")).isTrue();
+	}
+
+	@Test
+	void matchesAccentAndWidthVariantsLikeTheDatabaseCollation() throws InterruptedException {
+		jdbcTemplate.update("insert into users (username) values (?)", "José");
+		UsernameBloomFilter filter = filter(1000);
+		filter.start();
+		awaitRebuilds(1);
+
+		assertThat(filter.mightContain("jose")).isTrue();
+		assertThat(filter.mightContain("JOSÉ")).isTrue();
+		assertThat(filter.mightContain("ｊｏｓｅ")).isTrue();
+		assertThat(UsernameBloomFilter.normalize(" Ｊose\u0301 ")).isEqualTo("jose");
+
+		// 归一化覆盖不到的名字交给数据库判断
+		assertThat(filter.mightContain("straße")).isTrue();
+		assertThat(filter.mightContain("张三")).isTrue();
+		assertThat(meterRegistry.counter("auth.username.filter.checks", "result", "bypassed").count()).isEqualTo(2);
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTarget() throws InterruptedException {
+		register("user-", 5000);
+		UsernameBloomFilter filter = filter(5000);
+		filter.start();
+		awaitRebuilds(1);
+
+		int positives = 0;
+		for (int i = 0; i < 20000; i++) {
+			if (filter.mightContain("absent-" + i)) {
+				positives++;
+			}
+		}
+
+		assertThat(positives / 20000.0).isLessThan(0.03);
+	}
+
+	@Test
+	void rebuildsWithLargerCapacityWithoutLosingUsers() throws InterruptedException {
+		List<String> usernames = new ArrayList<>(register("user-", 100));
+		UsernameBloomFilter filter = filter(100);
+		filter.start();
+		awaitRebuilds(1);
+		assertThat(gauge("auth.username.filter.capacity")).isEqualTo(200);
+
+		for (String username : register("new-", 250)) {
+			filter.put(username);
+			usernames.add(username);
+		}
+		awaitRebuilds(2);
+
+		assertThat(gauge("auth.username.filter.capacity")).isGreaterThanOrEqualTo(400);
+		assertThat(usernames).allMatch(filter::mightContain);
+	}
+}
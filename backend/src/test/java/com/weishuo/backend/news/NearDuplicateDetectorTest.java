@@ -0,0 +1,106 @@
+package com.weishuo.backend.news;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.weishuo.backend.config.NewsDedupProperties;
+import com.weishuo.backend.news.dto.NewsFeedItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class NearDuplicateDetectorTest {
+
+	private static final String ORIGINAL = "国家航天局今日宣布，嫦娥七号探测器将于明年择机发射，开展月球南极环境与资源勘察任务，"
+			+ "并与国际伙伴共享部分科学数据。";
+	private static final String REPOSTED = "国家航天局今日宣布：嫦娥七号探测器将于明年择机发射 开展月球南极环境与资源勘察任务 "
+			+ "并与国际伙伴共享部分科学数据";
+	private static final String EDITED = "国家航天局今日宣布，嫦娥七号探测器将于后年择机发射，开展月球南极环境与资源勘察任务，"
+			+ "并与国际伙伴共享部分科学数据。";
+	private static final String UNRELATED = "本赛季中超联赛第二十轮比赛昨晚结束，上海海港客场战胜北京国安，继续领跑积分榜，"
+			+ "多名球员赛后接受采访。";
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private NearDuplicateDetector detector(int maxDistance) {
+		NewsDedupProperties properties = new NewsDedupProperties();
+		properties.setMaxDistance(maxDistance);
+		return new NearDuplicateDetector(properties, meterRegistry);
+	}
+
+	private static NewsFeedItem item(String id, String content) {
+		return NewsFeedItem.builder().id(id).content(content).build();
+	}
+
+	private static List<String> ids(List<NewsFeedItem> items) {
+		return items.stream().map(NewsFeedItem::getId).toList();
+	}
+
+	private static int distance(String a, String b) {
+		return Long.bitCount(NearDuplicateDetector.simHash(NewsTokenizer.tokenize(a))
+				^ NearDuplicateDetector.simHash(NewsTokenizer.tokenize(b)));
+	}
+
+	@Test
+	void dropsRepostThatDiffersOnlyInPunctuation() {
+		NearDuplicateDetector detector = detector(4);
+
+		List<NewsFeedItem> kept = detector.filter(List.of(item("a", ORIGINAL), item("b", REPOSTED), item("c", UNRELATED)));
+
+		assertThat(ids(kept)).containsExactly("a", "c");
+		assertThat(meterRegistry.counter("news.dedup.dropped").count()).isEqualTo(1);
+	}
+
+	@Test
+	void keepsRefetchOfSameItem() {
+		NearDuplicateDetector detector = detector(4);
+		detector.filter(List.of(item("a", ORIGINAL)));
+
+		assertThat(ids(detector.filter(List.of(item("a", ORIGINAL))))).containsExactly("a");
+		assertThat(ids(detector.filter(List.of(item("b", ORIGINAL))))).isEmpty();
+	}
+
+	@Test
+	void editedCopyIsDuplicateOnlyWithinMaxDistance() {
+		int distance = distance(ORIGINAL, EDITED);
+		assertThat(distance).isBetween(1, 15);
+
+		NearDuplicateDetector atThreshold = detector(distance);
+		atThreshold.filter(List.of(item("a", ORIGINAL)));
+		assertThat(ids(atThreshold.filter(List.of(item("b", EDITED))))).isEmpty();
+
+		NearDuplicateDetector belowThreshold = detector(distance - 1);
+		belowThreshold.filter(List.of(item("a", ORIGINAL)));
+		assertThat(ids(belowThreshold.filter(List.of(item("b", EDITED))))).containsExactly("b");
+	}
+
+	@Test
+	void shortTextsAreNotCompared() {
+		NearDuplicateDetector detector = detector(4);
+
+		List<NewsFeedItem> kept = detector.filter(List.of(item("a", "突发新闻"), item("b", "突发新闻！")));
+
+		assertThat(ids(kept)).containsExactly("a", "b");
+	}
+
+	@Test
+	void forgetsFingerprintsBeyondCapacity() {
+		NewsDedupProperties properties = new NewsDedupProperties();
+		properties.setCapacity(1);
+		NearDuplicateDetector detector = new NearDuplicateDetector(properties, meterRegistry);
+
+		detector.filter(List.of(item("a", ORIGINAL), item("c", UNRELATED)));
+
+		assertThat(ids(detector.filter(List.of(item("b", REPOSTED))))).containsExactly("b");
+	}
+
+	@Test
+	void disabledDetectorKeepsEverything() {
+		NewsDedupProperties properties = new NewsDedupProperties();
+		properties.setEnabled(false);
+		NearDuplicateDetector detector = new NearDuplicateDetector(properties, meterRegistry);
+
+		List<NewsFeedItem> kept = detector.filter(List.of(item("a", ORIGINAL), item("b", REPOSTED)));
+
+		assertThat(ids(kept)).containsExactly("a", "b");
+	}
+}
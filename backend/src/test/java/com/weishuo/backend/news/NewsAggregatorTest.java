@@ -0,0 +1,162 @@
+package com.weishuo.backend.news;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.weishuo.backend.config.NewsProvidersProperties;
+import com.weishuo.backend.news.dto.NewsFeedItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+class NewsAggregatorTest {
+
+	private static final Duration BLOCK = Duration.ofSeconds(5);
+	private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private NewsAggregator aggregator(NewsProvider... providers) {
+		NewsProvidersProperties properties = new NewsProvidersProperties();
+		properties.setMergeWindow(Duration.ofMillis(200));
+		return new NewsAggregator(List.of(providers), properties, meterRegistry);
+	}
+
+	private static NewsFeedItem item(String id, String link, int minutesAgo) {
+		return NewsFeedItem.builder().id(id).link(link).publishedAt(NOW.minusMinutes(minutesAgo)).build();
+	}
+
+	private static List<String> ids(List<NewsFeedItem> items) {
+		return items.stream().map(NewsFeedItem::getId).toList();
+	}
+
+	@Test
+	void mergesProvidersDedupingByLinkNewestFirst() {
+		StubProvider first = new StubProvider("first", call -> Mono.just(List.of(
+				item("a1", "https://example.com/1", 10),
+				item("a2", "https://example.com/2", 30))));
+		StubProvider second = new StubProvider("second", call -> Mono.delay(Duration.ofMillis(50))
+				.thenReturn(List.of(
+						item("b1", "https://example.com/1", 5),
+						item("b3", "https://example.com/3", 20))));
+
+		List<NewsFeedItem> merged = aggregator(first, second).fetch("general").block(BLOCK);
+
+		// 同一链接保留先返回的提供方
+		assertThat(ids(merged)).containsExactly("a1", "b3", "a2");
+	}
+
+	@Test
+	void ignoresFailingProviderWhenAnotherSucceeds() {
+		StubProvider broken = new StubProvider("broken", call -> Mono.error(new RuntimeException("boom")));
+		StubProvider empty = new StubProvider("empty", call -> Mono.just(List.of()));
+		StubProvider healthy = new StubProvider("healthy",
+				call -> Mono.just(List.of(item("h1", "https://example.com/h1", 1))));
+
+		List<NewsFeedItem> merged = aggregator(broken, empty, healthy).fetch("general").block(BLOCK);
+
+		assertThat(ids(merged)).containsExactly("h1");
+		assertThat(meterRegistry.timer("news.provider.fetch", "provider", "broken", "outcome", "failure").count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	void failsWhenEveryProviderFails() {
+		StubProvider broken = new StubProvider("broken", call -> Mono.error(new RuntimeException("boom")));
+		StubProvider slow = new StubProvider("slow", call -> Mono.never());
+		slow.timeout = Duration.ofMillis(100);
+
+		assertThatThrownBy(() -> aggregator(broken, slow).fetch("general").block(BLOCK))
+				.hasMessageContaining("No provider returned news");
+	}
+
+	@Test
+	void skipsUnavailableProviders() {
+		StubProvider disabled = new StubProvider("disabled",
+				call -> Mono.just(List.of(item("d1", "https://example.com/d1", 1))));
+		disabled.available = false;
+		StubProvider enabled = new StubProvider("enabled",
+				call -> Mono.just(List.of(item("e1", "https://example.com/e1", 1))));
+
+		assertThat(ids(aggregator(disabled, enabled).fetch("general").block(BLOCK))).containsExactly("e1");
+		assertThat(disabled.calls.get()).isZero();
+		assertThatThrownBy(() -> aggregator(disabled).fetch("general").block(BLOCK))
+				.hasMessageContaining("No news provider configured");
+	}
+
+	@Test
+	void hedgeAnswersWhenFirstCallHangs() {
+		StubProvider hedged = new StubProvider("hedged", call -> call == 1
+				? Mono.never()
+				: Mono.just(List.of(item("h1", "https://example.com/h1", 1))));
+		hedged.hedgeDelay = Duration.ofMillis(50);
+
+		List<NewsFeedItem> merged = aggregator(hedged).fetch("general").block(BLOCK);
+
+		assertThat(ids(merged)).containsExactly("h1");
+		assertThat(hedged.calls.get()).isEqualTo(2);
+		assertThat(meterRegistry.counter("news.provider.hedges", "provider", "hedged").count()).isEqualTo(1);
+	}
+
+	@Test
+	void dropsProviderSlowerThanMergeWindow() {
+		StubProvider fast = new StubProvider("fast",
+				call -> Mono.just(List.of(item("f1", "https://example.com/f1", 1))));
+		StubProvider slow = new StubProvider("slow", call -> Mono.delay(Duration.ofSeconds(2))
+				.thenReturn(List.of(item("s1", "https://example.com/s1", 0))));
+
+		long start = System.nanoTime();
+		List<NewsFeedItem> merged = aggregator(fast, slow).fetch("general").block(BLOCK);
+
+		assertThat(ids(merged)).containsExactly("f1");
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+	}
+
+	/**
+	 * 本地桩提供方，按调用序号（从 1 开始）返回预设结果
+	 */
+	private static class StubProvider implements NewsProvider {
+
+		private final String name;
+		private final IntFunction<Mono<List<NewsFeedItem>>> responses;
+		private final AtomicInteger calls = new AtomicInteger();
+		private boolean available = true;
+		private Duration timeout = Duration.ofSeconds(3);
+		private Duration hedgeDelay;
+
+		StubProvider(String name, IntFunction<Mono<List<NewsFeedItem>>> responses) {
+			this.name = name;
+			this.responses = responses;
+		}
+
+		@Override
+		public String name() {
+			return name;
+		}
+
+		@Override
+		public boolean isAvailable() {
+			return available;
+		}
+
+		@Override
+		public Duration timeout() {
+			return timeout;
+		}
+
+		@Override
+		public Duration hedgeDelay() {
+			return hedgeDelay;
+		}
+
+		@Override
+		public Mono<List<NewsFeedItem>> fetch(String category) {
+			return Mono.defer(() -> responses.apply(calls.incrementAndGet()));
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package com.weishuo.backend.news;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.weishuo.backend.config.NewsResilienceProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class UpstreamCircuitBreakerTest {
+
+	private static final Duration CEILING = Duration.ofSeconds(5);
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private NewsResilienceProperties properties(Duration openDuration) {
+		NewsResilienceProperties properties = new NewsResilienceProperties();
+		properties.setSlidingWindowSize(10);
+		properties.setMinimumCalls(4);
+		properties.setFailureRateThreshold(0.5);
+		properties.setOpenDuration(openDuration);
+		properties.setHalfOpenCalls(2);
+		properties.setMinLatencySamples(5);
+		return properties;
+	}
+
+	private UpstreamCircuitBreaker breaker(NewsResilienceProperties properties) {
+		return new UpstreamCircuitBreaker("test", CEILING, properties, meterRegistry);
+	}
+
+	private void trip(UpstreamCircuitBreaker breaker, int calls) {
+		for (int i = 0; i < calls; i++) {
+			assertThat(breaker.tryAcquirePermission()).isTrue();
+			breaker.onFailure();
+		}
+	}
+
+	@Test
+	void staysClosedUntilMinimumCallsReached() {
+		UpstreamCircuitBreaker breaker = breaker(properties(Duration.ofMinutes(1)));
+
+		trip(breaker, 3);
+
+		assertThat(breaker.getState()).isEqualTo(UpstreamCircuitBreaker.State.CLOSED);
+	}
+
+	@Test
+	void opensAtFailureRateThresholdAndRejectsCalls() {
+		UpstreamCircuitBreaker breaker = breaker(properties(Duration.ofMinutes(1)));
+		breaker.tryAcquirePermission();
+		breaker.onSuccess(TimeUnit.MILLISECONDS.toNanos(10));
+		breaker.tryAcquirePermission();
+		breaker.onSuccess(TimeUnit.MILLISECONDS.toNanos(10));
+
+		trip(breaker, 2);
+
+		assertThat(breaker.getState()).isEqualTo(UpstreamCircuitBreaker.State.OPEN);
+		assertThat(breaker.tryAcquirePermission()).isFalse();
+		assertThat(meterRegistry.counter("news.upstream.circuit.trips", "provider", "test").count()).isEqualTo(1);
+		assertThat(meterRegistry.counter("news.upstream.circuit.rejected", "provider", "test").count()).isEqualTo(1);
+	}
+
+	@Test
+	void halfOpenLimitsProbesAndClosesAfterAllSucceed() {
+		UpstreamCircuitBreaker breaker = breaker(properties(Duration.ZERO));
+		trip(breaker, 4);
+		assertThat(breaker.getState()).isEqualTo(UpstreamCircuitBreaker.State.OPEN);
+
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		assertThat(breaker.getState()).isEqualTo(UpstreamCircuitBreaker.State.HALF_OPEN);
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		assertThat(breaker.tryAcquirePermission()).isFalse();
+
+		breaker.onSuccess(TimeUnit.MILLISECONDS.toNanos(10));
+		assertThat(breaker.getState()).isEqualTo(UpstreamCircuitBreaker.State.HALF_OPEN);
+		breaker.onSuccess(TimeUnit.MILLISECONDS.toNanos(10));
+		assertThat(breaker.getState()).isEqualTo(UpstreamCircuitBreaker.State.CLOSED);
+
+		// 恢复后窗口清零，需要重新积累到 minimumCalls 才会再次熔断
+		trip(breaker, 3);
+		assertThat(breaker.getState()).isEqualTo(UpstreamCircuitBreaker.State.CLOSED);
+	}
+
+	@Test
+	void halfOpenFailureReopens() {
+		UpstreamCircuitBreaker breaker = breaker(properties(Duration.ZERO));
+		trip(breaker, 4);
+
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		breaker.onFailure();
+
+		assertThat(breaker.getState()).isEqualTo(UpstreamCircuitBreaker.State.OPEN);
+		assertThat(meterRegistry.counter("news.upstream.circuit.trips", "provider", "test").count()).isEqualTo(2);
+	}
+
+	@Test
+	void cancelledProbeReturnsHalfOpenPermit() {
+		UpstreamCircuitBreaker breaker = breaker(properties(Duration.ZERO));
+		trip(breaker, 4);
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		assertThat(breaker.tryAcquirePermission()).isFalse();
+
+		breaker.onCancel();
+
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+	}
+
+	@Test
+	void retriesAreLimitedByBudgetAndDeniedUnlessClosed() {
+		NewsResilienceProperties properties = properties(Duration.ofMinutes(1));
+		properties.setRetryRatio(0.5);
+		UpstreamCircuitBreaker breaker = breaker(properties);
+
+		assertThat(breaker.tryAcquireRetry(() -> true)).isFalse();
+		breaker.tryAcquirePermission();
+		breaker.tryAcquirePermission();
+		// 配额被拒绝时不扣除预算
+		assertThat(breaker.tryAcquireRetry(() -> false)).isFalse();
+		assertThat(breaker.tryAcquireRetry(() -> true)).isTrue();
+		assertThat(breaker.tryAcquireRetry(() -> true)).isFalse();
+
+		trip(breaker, 4);
+		breaker.tryAcquirePermission();
+		assertThat(breaker.getState()).isEqualTo(UpstreamCircuitBreaker.State.OPEN);
+		assertThat(breaker.tryAcquireRetry(() -> true)).isFalse();
+	}
+
+	@Test
+	void adaptiveTimeoutFollowsLatencyPercentileWithinBounds() {
+		UpstreamCircuitBreaker breaker = breaker(properties(Duration.ofMinutes(1)));
+		assertThat(breaker.currentTimeout()).isEqualTo(CEILING);
+
+		for (int i = 0; i < 5; i++) {
+			breaker.onSuccess(TimeUnit.MILLISECONDS.toNanos(400));
+		}
+		assertThat(breaker.currentTimeout()).isEqualTo(Duration.ofMillis(800));
+
+		// 最近样本全部很快时不低于 minTimeout
+		for (int i = 0; i < 128; i++) {
+			breaker.onSuccess(TimeUnit.MILLISECONDS.toNanos(1));
+		}
+		assertThat(breaker.currentTimeout()).isEqualTo(Duration.ofMillis(500));
+
+		// 上游整体变慢时不超过上限
+		for (int i = 0; i < 128; i++) {
+			breaker.onSuccess(TimeUnit.SECONDS.toNanos(10));
+		}
+		assertThat(breaker.currentTimeout()).isEqualTo(CEILING);
+	}
+}
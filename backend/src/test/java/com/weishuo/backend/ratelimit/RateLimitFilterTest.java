@@ -0,0 +1,81 @@
+package com.weishuo.backend.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.weishuo.backend.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class RateLimitFilterTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private RateLimitFilter filter;
+
+	@AfterEach
+	void tearDown() {
+		if (filter != null) {
+			filter.shutdown();
+		}
+	}
+
+	private RateLimitFilter filter(boolean trustForwardedFor) {
+		RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+		policy.setName("login");
+		policy.setPatterns(List.of("/api/auth/login"));
+		policy.setCapacity(1);
+		policy.setRefillPerSecond(0.1);
+		RateLimitProperties properties = new RateLimitProperties();
+		properties.setTrustForwardedFor(trustForwardedFor);
+		properties.setPolicies(List.of(policy));
+		filter = new RateLimitFilter(properties, meterRegistry);
+		return filter;
+	}
+
+	private MockHttpServletResponse send(String path, String remoteAddr, String forwardedFor) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+		request.setRemoteAddr(remoteAddr);
+		if (forwardedFor != null) {
+			request.addHeader("X-Forwarded-For", forwardedFor);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+
+	@Test
+	void rejectsWithRetryAfterOnceBurstIsSpent() throws Exception {
+		filter(false);
+
+		assertThat(send("/api/auth/login", "10.0.0.1", null).getStatus()).isEqualTo(200);
+		MockHttpServletResponse rejected = send("/api/auth/login", "10.0.0.1", null);
+
+		assertThat(rejected.getStatus()).isEqualTo(429);
+		assertThat(Long.parseLong(rejected.getHeader(HttpHeaders.RETRY_AFTER))).isBetween(9L, 10L);
+		assertThat(send("/api/auth/login", "10.0.0.2", null).getStatus()).isEqualTo(200);
+		assertThat(send("/api/news/latest", "10.0.0.1", null).getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void ignoresForwardedForUnlessTrusted() throws Exception {
+		filter(false);
+
+		assertThat(send("/api/auth/login", "10.0.0.1", "1.1.1.1").getStatus()).isEqualTo(200);
+		assertThat(send("/api/auth/login", "10.0.0.1", "2.2.2.2").getStatus()).isEqualTo(429);
+	}
+
+	@Test
+	void keysByRightMostForwardedForEntry() throws Exception {
+		filter(true);
+
+		assertThat(send("/api/auth/login", "10.0.0.1", "1.1.1.1, 203.0.113.7").getStatus()).isEqualTo(200);
+		// 客户端在左侧伪造的地址不影响限流键
+		assertThat(send("/api/auth/login", "10.0.0.1", "2.2.2.2, 203.0.113.7").getStatus()).isEqualTo(429);
+		assertThat(send("/api/auth/login", "10.0.0.1", "203.0.113.8").getStatus()).isEqualTo(200);
+	}
+}
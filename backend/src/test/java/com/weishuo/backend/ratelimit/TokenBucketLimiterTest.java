@@ -0,0 +1,77 @@
+package com.weishuo.backend.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketLimiterTest {
+
+	private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	private final long start = System.nanoTime();
+
+	@Test
+	void allowsBurstUpToCapacityThenReportsWait() {
+		TokenBucketLimiter limiter = new TokenBucketLimiter(5, 1, 1, 100);
+
+		for (int i = 0; i < 5; i++) {
+			assertThat(limiter.tryAcquire("client", start)).isZero();
+		}
+
+		assertThat(limiter.tryAcquire("client", start)).isEqualTo(SECOND);
+		assertThat(limiter.tryAcquire("client", start + SECOND / 4)).isEqualTo(SECOND * 3 / 4);
+	}
+
+	@Test
+	void refillsAtConfiguredRate() {
+		TokenBucketLimiter limiter = new TokenBucketLimiter(2, 2, 1, 100);
+		limiter.tryAcquire("client", start);
+		limiter.tryAcquire("client", start);
+		assertThat(limiter.tryAcquire("client", start)).isPositive();
+
+		assertThat(limiter.tryAcquire("client", start + SECOND / 2)).isZero();
+		assertThat(limiter.tryAcquire("client", start + SECOND / 2)).isPositive();
+
+		// 空闲足够久后最多回满到桶容量，不会累积更多突发额度
+		assertThat(limiter.tryAcquire("client", start + 10 * SECOND)).isZero();
+		assertThat(limiter.tryAcquire("client", start + 10 * SECOND)).isZero();
+		assertThat(limiter.tryAcquire("client", start + 10 * SECOND)).isPositive();
+	}
+
+	@Test
+	void clientsHaveIndependentBuckets() {
+		TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1, 4, 100);
+
+		assertThat(limiter.tryAcquire("a", start)).isZero();
+		assertThat(limiter.tryAcquire("a", start)).isPositive();
+		assertThat(limiter.tryAcquire("b", start)).isZero();
+		assertThat(limiter.size()).isEqualTo(2);
+	}
+
+	@Test
+	void evictsOnlyIdleClients() {
+		TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1, 4, 100);
+		limiter.tryAcquire("idle", start);
+		limiter.tryAcquire("active", start + 5 * SECOND);
+
+		int evicted = limiter.evictIdle(start + 8 * SECOND, 5 * SECOND);
+
+		assertThat(evicted).isEqualTo(1);
+		assertThat(limiter.size()).isEqualTo(1);
+		assertThat(limiter.tryAcquire("active", start + 8 * SECOND)).isZero();
+	}
+
+	@Test
+	void clientsBeyondShardCapacityShareOverflowBucket() {
+		TokenBucketLimiter limiter = new TokenBucketLimiter(2, 1, 4, 0);
+
+		assertThat(limiter.tryAcquire("spoofed-1", start)).isZero();
+		assertThat(limiter.tryAcquire("spoofed-2", start)).isZero();
+		assertThat(limiter.tryAcquire("spoofed-3", start)).isEqualTo(SECOND);
+		assertThat(limiter.tryAcquire("spoofed-4", start + SECOND)).isZero();
+
+		assertThat(limiter.size()).isZero();
+		assertThat(limiter.overflowed()).isEqualTo(4);
+	}
+}